@@ -0,0 +1,95 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Vm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming broker that folds every returned cloudlet into aggregates and then lets it go.
+ *
+ * Keeps a {@link MetricsAggregator} and per-VM totals in fixed memory. With a {@link CloudletLog} the full detail of each cloudlet is appended to a binary
+ * file instead of being held on the heap; with a {@link CloudletTable} it is kept as one row of
+ * primitive columns.
+ */
+public class AggregatingBroker extends StreamingCloudletBroker {
+
+    private final CloudletLog log;
+    private final CloudletTable table;
+    private final MetricsAggregator metrics = new MetricsAggregator();
+    private final Map<Integer, Integer> vmIndex = new HashMap<>();
+
+    private int[] vmIds;
+    private long[] vmCloudlets;
+    private double[] vmBusySeconds;
+
+    /**
+     * @param log where to write each finished cloudlet, or {@code null}; closed at the end of the simulation
+     * @param table where to add each finished cloudlet as a row, or {@code null}
+     */
+    public AggregatingBroker(String name, CloudletSource source, int maxInFlight, CloudletLog log, CloudletTable table) throws Exception {
+        super(name, source, maxInFlight, false);
+        this.log = log;
+        this.table = table;
+    }
+
+    @Override
+    protected void cloudletReturned(Cloudlet cloudlet) {
+        super.cloudletReturned(cloudlet);
+        if (vmIds == null) {
+            indexVms();
+        }
+
+        metrics.add(cloudlet);
+        if (table != null) {
+            table.add(cloudlet);
+        }
+        Integer vm = vmIndex.get(cloudlet.getVmId());
+        if (vm != null && cloudlet.getStatus() == Cloudlet.SUCCESS) {
+            vmCloudlets[vm]++;
+            vmBusySeconds[vm] += cloudlet.getFinishTime() - cloudlet.getExecStartTime();
+        }
+
+        if (log != null) {
+            try {
+                log.write(cloudlet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void indexVms() {
+        List<Vm> vms = getVmList();
+        vmIds = new int[vms.size()];
+        vmCloudlets = new long[vms.size()];
+        vmBusySeconds = new double[vms.size()];
+        for (int i = 0; i < vms.size(); i++) {
+            vmIds[i] = vms.get(i).getId();
+            vmIndex.put(vmIds[i], i);
+        }
+    }
+
+    @Override
+    public void shutdownEntity() {
+        super.shutdownEntity();
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public MetricsAggregator getMetrics() { return metrics; }
+
+    public int getVmCount() { return vmIds == null ? 0 : vmIds.length; }
+    public int getVmId(int index) { return vmIds[index]; }
+    public long getVmCloudlets(int index) { return vmCloudlets[index]; }
+    public double getVmBusySeconds(int index) { return vmBusySeconds[index]; }
+}
@@ -0,0 +1,131 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+import java.util.Arrays;
+
+/**
+ * Finished cloudlets as primitive columns.
+ *
+ * One row costs 36 bytes and no objects, so reports and viewers can keep every cloudlet of a
+ * large run after the {@link Cloudlet} instances are gone.
+ */
+public class CloudletTable {
+
+    private int size;
+    private int[] ids;
+    private int[] status;
+    private int[] vmIds;
+    private double[] cpuTime;
+    private double[] start;
+    private double[] finish;
+
+    public CloudletTable() {
+        this(16);
+    }
+
+    public CloudletTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        ids = new int[capacity];
+        status = new int[capacity];
+        vmIds = new int[capacity];
+        cpuTime = new double[capacity];
+        start = new double[capacity];
+        finish = new double[capacity];
+    }
+
+    public void add(Cloudlet cloudlet) {
+        add(cloudlet.getCloudletId(), cloudlet.getStatus(), cloudlet.getVmId(),
+                cloudlet.getActualCPUTime(), cloudlet.getExecStartTime(), cloudlet.getFinishTime());
+    }
+
+    public void add(int id, int cloudletStatus, int vmId, double cpuSeconds, double startTime, double finishTime) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        status[size] = cloudletStatus;
+        vmIds[size] = vmId;
+        cpuTime[size] = cpuSeconds;
+        start[size] = startTime;
+        finish[size] = finishTime;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        status = Arrays.copyOf(status, capacity);
+        vmIds = Arrays.copyOf(vmIds, capacity);
+        cpuTime = Arrays.copyOf(cpuTime, capacity);
+        start = Arrays.copyOf(start, capacity);
+        finish = Arrays.copyOf(finish, capacity);
+    }
+
+    /**
+     * Rows of the {@code n} longest-running cloudlets, longest first, found with a bounded heap
+     * in O(size log n) without touching the columns.
+     */
+    public int[] longestRunning(int n) {
+        n = Math.min(n, size);
+        int[] heap = new int[n];  // min-heap on execution time, root is the shortest kept row
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (count < n) {
+                heap[count] = row;
+                siftUp(heap, count++);
+            } else if (n > 0 && execTime(row) > execTime(heap[0])) {
+                heap[0] = row;
+                siftDown(heap, 0, count);
+            }
+        }
+        // Pop the minimum into the back until the array is sorted longest first
+        for (int end = count - 1; end > 0; end--) {
+            int root = heap[0];
+            heap[0] = heap[end];
+            heap[end] = root;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    private double execTime(int row) {
+        return finish[row] - start[row];
+    }
+
+    private void siftUp(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (execTime(heap[parent]) <= execTime(heap[i])) return;
+            int tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int count) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < count && execTime(heap[left]) < execTime(heap[smallest])) smallest = left;
+            if (right < count && execTime(heap[right]) < execTime(heap[smallest])) smallest = right;
+            if (smallest == i) return;
+            int tmp = heap[smallest];
+            heap[smallest] = heap[i];
+            heap[i] = tmp;
+            i = smallest;
+        }
+    }
+
+    public int size() { return size; }
+    public int getId(int row) { return ids[row]; }
+    public int getStatus(int row) { return status[row]; }
+    public boolean isSuccess(int row) { return status[row] == Cloudlet.SUCCESS; }
+    public String getStatusName(int row) { return Cloudlet.getStatusString(status[row]); }
+    public int getVmId(int row) { return vmIds[row]; }
+    public double getCpuTime(int row) { return cpuTime[row]; }
+    public double getStart(int row) { return start[row]; }
+    public double getFinish(int row) { return finish[row]; }
+}
@@ -0,0 +1,171 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import java.util.*;
+
+/**
+ * Simulation entity that periodically re-optimizes the placement of a running datacenter.
+ *
+ * Every {@code interval} seconds it snapshots the CPU demand of each VM, re-runs the optimizer
+ * warm-started from the current allocation and live-migrates only the VMs whose move lowers
+ * the {@link PlacementProblem#imbalance} (plus the weighted traffic cost, if a {@link TrafficModel}
+ * is set) by more than {@code threshold} cost units, about MIPS on identical hosts. Ticks where
+ * no VM has running cloudlets are skipped; it stops rescheduling itself once the broker has no
+ * work left to start either, so the simulation can end.
+ */
+public class ConsolidationManager extends SimEntity {
+
+    private static final int REOPTIMIZE = 9100;
+
+    private final Datacenter datacenter;
+    private final FederatedBroker broker;
+    private final PlacementOptimizer optimizer;
+    private final TrafficModel traffic;
+    private final double interval;
+    private final double threshold;
+    private final Map<Host, Integer> hostIndex = new HashMap<>();
+
+    private int rounds;
+    private int migrations;
+    private double migrationTime;
+    private double balanceGain;
+
+    public ConsolidationManager(String name, Datacenter datacenter, FederatedBroker broker, PlacementOptimizer optimizer,
+                                TrafficModel traffic, double interval, double threshold) {
+        super(name);
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Re-optimization interval must be positive");
+        }
+        this.datacenter = datacenter;
+        this.broker = broker;
+        this.optimizer = optimizer;
+        this.traffic = traffic;
+        this.interval = interval;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void startEntity() {
+        List<Host> hosts = datacenter.getHostList();
+        for (int h = 0; h < hosts.size(); h++) {
+            hostIndex.put(hosts.get(h), h);
+        }
+        schedule(getId(), interval, REOPTIMIZE);
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        SimulationProbe.onEvent();
+        if (ev.getTag() != REOPTIMIZE) return;
+
+        boolean running = hasRunningCloudlets();
+        if (!running && !broker.hasPendingWork()) {
+            return;
+        }
+        // An idle gap between releases is not the end of the run
+        if (running) {
+            reoptimize();
+        }
+        schedule(getId(), interval, REOPTIMIZE);
+    }
+
+    @Override
+    public void shutdownEntity() {
+    }
+
+    private boolean hasRunningCloudlets() {
+        for (Vm vm : datacenter.<Vm>getVmList()) {
+            if (vm.getCloudletScheduler().runningCloudlets() > 0) return true;
+        }
+        return false;
+    }
+
+    private void reoptimize() {
+        double clock = CloudSim.clock();
+        List<Host> hosts = datacenter.getHostList();
+
+        // Snapshot: VMs already migrating stay where they are and only count as load
+        double[] baseLoad = new double[hosts.size()];
+        List<Vm> movable = new ArrayList<>();
+        List<Double> demand = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        for (Vm vm : datacenter.<Vm>getVmList()) {
+            Host host = vm.getHost();
+            if (host == null) continue;
+            int h = hostIndex.get(host);
+            double load = Math.min(vm.getMips(), vm.getTotalUtilizationOfCpuMips(clock));
+            if (vm.isInMigration()) {
+                baseLoad[h] += load;
+            } else {
+                movable.add(vm);
+                demand.add(load);
+                current.add(h);
+            }
+        }
+        if (movable.isEmpty()) return;
+
+        double[] vmMips = new double[movable.size()];
+        int[] initial = new int[movable.size()];
+        for (int i = 0; i < vmMips.length; i++) {
+            vmMips[i] = demand.get(i);
+            initial[i] = current.get(i);
+        }
+
+        PlacementProblem problem = new PlacementProblem(hosts, movable, vmMips, baseLoad, initial.clone(), traffic);
+        int[] proposal = optimizer.optimize(problem);
+        rounds++;
+
+        int[] placed = initial.clone();
+        double[] hostLoad = problem.cpuLoad(placed);
+        double[] hostRam = problem.ramLoad(placed);
+
+        for (int i = 0; i < proposal.length; i++) {
+            int from = initial[i];
+            int to = proposal[i];
+            if (from == to) continue;
+
+            // Moving one VM changes two hosts, the target utilization stays the same
+            double gain = -problem.imbalanceDelta(hostLoad, hostRam, i, from, to) - problem.trafficDelta(placed, i, to);
+            Vm vm = movable.get(i);
+            Host target = hosts.get(to);
+            if (gain <= threshold || !target.isSuitableForVm(vm)) continue;
+
+            migrate(vm, target, gain);
+            hostLoad[from] -= vmMips[i];
+            hostLoad[to] += vmMips[i];
+            hostRam[from] -= problem.vmRam[i];
+            hostRam[to] += problem.vmRam[i];
+            placed[i] = to;
+        }
+    }
+
+    private void migrate(Vm vm, Host target, double gain) {
+        // Memory is copied over half of the target's bandwidth (MB -> Mbit over Mbit/s)
+        double delay = vm.getRam() * 8.0 / (target.getBw() / 2.0);
+
+        Map<String, Object> migrate = new HashMap<>();
+        migrate.put("vm", vm);
+        migrate.put("host", target);
+        target.addMigratingInVm(vm);
+        send(datacenter.getId(), delay, CloudSimTags.VM_MIGRATE, migrate);
+
+        migrations++;
+        migrationTime += delay;
+        balanceGain += gain;
+        Log.formatLine("%.2f: %s: Migrating VM #%d from Host #%d to Host #%d (cost -%.2f)",
+                CloudSim.clock(), getName(), vm.getId(), vm.getHost().getId(), target.getId(), gain);
+    }
+
+    public int getRounds() { return rounds; }
+    public int getMigrations() { return migrations; }
+    public double getMigrationTime() { return migrationTime; }
+    public double getBalanceGain() { return balanceGain; }
+}
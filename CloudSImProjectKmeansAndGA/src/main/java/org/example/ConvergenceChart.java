@@ -0,0 +1,126 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Line chart of the best and mean fitness of the running optimizer.
+ *
+ * A Swing {@link Timer} polls the {@link OptimizerMonitor} at most {@code framesPerSecond}
+ * times per second and repaints only if something new arrived, so the chart costs the search
+ * thread nothing and the EDT a bounded amount of work however fast the optimizer iterates.
+ * Each new optimization round starts a new chart.
+ */
+public class ConvergenceChart extends JPanel {
+
+    private static final Color BEST_COLOR = new Color(41, 128, 185);
+    private static final Color MEAN_COLOR = new Color(243, 156, 18);
+
+    private final OptimizerMonitor monitor;
+    private final Timer timer;
+
+    private int round;
+    private int size;
+    private int[] iterations = new int[64];
+    private double[] best = new double[64];
+    private double[] mean = new double[64];
+    private long elapsedNanos;
+
+    public ConvergenceChart(OptimizerMonitor monitor, int framesPerSecond) {
+        this.monitor = monitor;
+        this.timer = new Timer(1000 / framesPerSecond, e -> refresh());
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(780, 300));
+    }
+
+    public void start() {
+        round = 0;
+        size = 0;
+        monitor.poll();
+        timer.start();
+        repaint();
+    }
+
+    public void stop() {
+        timer.stop();
+        refresh();
+    }
+
+    private void refresh() {
+        OptimizerMonitor.Progress progress = monitor.poll();
+        if (progress == null) return;
+        if (progress.getRound() != round) {
+            round = progress.getRound();
+            size = 0;
+        }
+        if (size == iterations.length) {
+            iterations = Arrays.copyOf(iterations, size * 2);
+            best = Arrays.copyOf(best, size * 2);
+            mean = Arrays.copyOf(mean, size * 2);
+        }
+        iterations[size] = progress.getIteration();
+        best[size] = progress.getBestFitness();
+        mean[size] = progress.getMeanFitness();
+        elapsedNanos = progress.getElapsedNanos();
+        size++;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int left = 70, right = 20, top = 30, bottom = 40;
+        int width = getWidth() - left - right;
+        int height = getHeight() - top - bottom;
+        g2d.setColor(Color.GRAY);
+        g2d.drawRect(left, top, width, height);
+
+        if (size == 0) {
+            g2d.drawString("Waiting for the optimizer...", left + 10, top + 20);
+            return;
+        }
+
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, Math.min(best[i], mean[i]));
+            max = Math.max(max, Math.max(best[i], mean[i]));
+        }
+        if (max == min) max = min + 1;
+        int lastIteration = Math.max(iterations[size - 1], 1);
+
+        g2d.drawString(String.format(Locale.ROOT, "%.1f", max), 5, top + 5);
+        g2d.drawString(String.format(Locale.ROOT, "%.1f", min), 5, top + height);
+        g2d.drawString("0", left, top + height + 15);
+        g2d.drawString(String.valueOf(lastIteration), left + width - 30, top + height + 15);
+        g2d.drawString(String.format(Locale.ROOT, "Round %d, iteration %d, best %.2f, %.1f ms",
+                round, iterations[size - 1], best[size - 1], elapsedNanos / 1e6), left, top - 10);
+
+        drawSeries(g2d, mean, MEAN_COLOR, min, max, lastIteration, left, top, width, height);
+        drawSeries(g2d, best, BEST_COLOR, min, max, lastIteration, left, top, width, height);
+
+        g2d.setColor(BEST_COLOR);
+        g2d.drawString("best", left + width - 80, top + height + 30);
+        g2d.setColor(MEAN_COLOR);
+        g2d.drawString("mean", left + width - 40, top + height + 30);
+    }
+
+    private void drawSeries(Graphics2D g2d, double[] values, Color color, double min, double max, int lastIteration,
+                            int left, int top, int width, int height) {
+        g2d.setColor(color);
+        int prevX = -1, prevY = -1;
+        for (int i = 0; i < size; i++) {
+            int x = left + (int) ((long) iterations[i] * width / lastIteration);
+            int y = top + height - (int) ((values[i] - min) / (max - min) * height);
+            if (prevX >= 0) {
+                g2d.drawLine(prevX, prevY, x, y);
+            }
+            prevX = x;
+            prevY = y;
+        }
+    }
+}
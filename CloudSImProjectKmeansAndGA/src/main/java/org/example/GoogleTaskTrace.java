@@ -0,0 +1,61 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads a Google-cluster-style task usage CSV.
+ *
+ * Columns follow the 2011 {@code task_usage} table: start time and end time in microseconds
+ * (0, 1), job id (2), task index (3), machine id (4), CPU rate (5) and canonical memory usage (6).
+ * CPU and memory are normalized to the largest machine and are scaled here by a reference
+ * PE size and host RAM. Each row becomes one VM whose cloudlet runs for the row's duration.
+ * Header lines, rows with an empty CPU or memory field and rows without a positive duration are
+ * skipped.
+ */
+public class GoogleTaskTrace implements WorkloadTrace {
+
+    private static final int START_TIME = 0;
+    private static final int END_TIME = 1;
+    private static final int CPU_RATE = 5;
+    private static final int MEMORY = 6;
+
+    private final MappedTraceReader reader;
+    private final double referenceMips;
+    private final int referenceRam;
+
+    public GoogleTaskTrace(Path file, double referenceMips, int referenceRam) throws IOException {
+        this.reader = new MappedTraceReader(file, ',');
+        this.referenceMips = referenceMips;
+        this.referenceRam = referenceRam;
+    }
+
+    @Override
+    public WorkloadChunk newChunk(int capacity) {
+        return new WorkloadChunk(capacity, 0);
+    }
+
+    @Override
+    public boolean nextChunk(WorkloadChunk chunk) throws IOException {
+        chunk.clear();
+        while (!chunk.isFull() && reader.nextLine()) {
+            if (reader.getFieldCount() <= MEMORY || !reader.isNumeric(START_TIME)) continue;
+            if (!reader.isNumeric(CPU_RATE) || !reader.isNumeric(MEMORY)) continue;
+
+            long start = reader.getLong(START_TIME);
+            long end = reader.getLong(END_TIME);
+            if (end <= start) continue;
+
+            double mips = Math.min(referenceMips, Math.max(1.0, reader.getDouble(CPU_RATE) * referenceMips));
+            int ram = (int) Math.max(1, Math.min(referenceRam, reader.getDouble(MEMORY) * referenceRam));
+            double seconds = (end - start) / 1_000_000.0;
+            chunk.add(mips, ram, Math.max(1, (long) (mips * seconds)), start / 1_000_000.0);
+        }
+        return chunk.size > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
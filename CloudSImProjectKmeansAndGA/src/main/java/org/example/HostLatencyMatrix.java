@@ -0,0 +1,78 @@
+package org.example;
+
+import org.cloudbus.cloudsim.network.DelayMatrix_Float;
+import org.cloudbus.cloudsim.network.GraphReaderBrite;
+import org.cloudbus.cloudsim.network.TopologicalGraph;
+
+import java.io.IOException;
+
+/**
+ * Host-to-host communication distance.
+ *
+ * The distance is either a hop count in a rack tree or the shortest-path delay of a BRITE
+ * topology. The optimizers only compare distances, so the unit only has to be consistent
+ * with the traffic weight. Nothing is stored per host pair: rack distances follow from the
+ * host indices, and BRITE delays are kept per pair of topology nodes, so memory does not grow
+ * with the square of the fleet.
+ */
+public class HostLatencyMatrix {
+
+    private final int numHosts;
+    private final int rackSize;
+    /** Row-major delay between topology nodes, or null for a rack tree. */
+    private final float[] nodeDistance;
+    private final int nodes;
+
+    private HostLatencyMatrix(int numHosts, int rackSize, float[] nodeDistance, int nodes) {
+        this.numHosts = numHosts;
+        this.rackSize = rackSize;
+        this.nodeDistance = nodeDistance;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Two-level tree: hosts in the same rack are 2 hops apart (via the top-of-rack switch),
+     * hosts in different racks 4 hops (via the aggregation switch).
+     */
+    public static HostLatencyMatrix rackTree(int numHosts, int rackSize) {
+        if (rackSize < 1) {
+            throw new IllegalArgumentException("Rack size must be at least 1");
+        }
+        return new HostLatencyMatrix(numHosts, rackSize, null, 0);
+    }
+
+    /**
+     * Reads a BRITE topology with CloudSim's reader and maps host {@code h} to node
+     * {@code h % nodes}. Distances are the shortest-path delays between the nodes.
+     */
+    public static HostLatencyMatrix fromBrite(String file, int numHosts) throws IOException {
+        TopologicalGraph graph = new GraphReaderBrite().readGraphFile(file);
+        int nodes = graph.getNumberOfNodes();
+        if (nodes == 0) {
+            throw new IOException("BRITE topology has no nodes: " + file);
+        }
+        if ((long) nodes * nodes > Integer.MAX_VALUE - 8) {
+            throw new IOException("BRITE topology has too many nodes (" + nodes + ") for a delay matrix: " + file);
+        }
+        DelayMatrix_Float delays = new DelayMatrix_Float(graph, false);
+        float[] distance = new float[nodes * nodes];
+        for (int a = 0; a < nodes; a++) {
+            for (int b = 0; b < nodes; b++) {
+                distance[a * nodes + b] = (float) delays.getDelay(a, b);
+            }
+        }
+        return new HostLatencyMatrix(numHosts, 0, distance, nodes);
+    }
+
+    public float get(int from, int to) {
+        if (nodeDistance != null) {
+            return nodeDistance[(from % nodes) * nodes + to % nodes];
+        }
+        if (from == to) return 0;
+        return from / rackSize == to / rackSize ? 2 : 4;
+    }
+
+    public int getNumHosts() {
+        return numHosts;
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G4Xeon3040;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G5Xeon3075;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hardware of one kind of host: cores, MIPS per core, RAM, bandwidth and power curve.
+ *
+ * A catalog is written in the {@code hostTypes} scenario key as
+ * {@code <pes>x<mipsPerPe>/<ramMb>[/<bwMbps>][@<power>]} entries separated by commas, e.g.
+ * {@code 4x2000/8192@ml110g5,16x2500/65536/20000@170-420}. Hosts take the catalog's types
+ * round-robin by host id. The power curve is a SPECpower model ({@code ml110g4} or
+ * {@code ml110g5}) or a linear {@code <idleW>-<maxW>} one; without it a type draws the
+ * default host's linear 0.1-0.4 kW scaled by its total MIPS.
+ */
+public final class HostType {
+
+    static final HostType DEFAULT = new HostType(4, Main.HOST_PE_MIPS, Main.HOST_RAM, Main.HOST_BW, null);
+
+    private final int pes;
+    private final double mipsPerPe;
+    private final int ramMb;
+    private final long bwMbps;
+    private final PowerModel powerModel;
+
+    HostType(int pes, double mipsPerPe, int ramMb, long bwMbps, PowerModel powerModel) {
+        this.pes = pes;
+        this.mipsPerPe = mipsPerPe;
+        this.ramMb = ramMb;
+        this.bwMbps = bwMbps;
+        this.powerModel = powerModel != null ? powerModel : new PowerModelLinear(
+                Main.POWER_MAX_KW * 1000 * pes * mipsPerPe / (4 * Main.HOST_PE_MIPS), Main.POWER_IDLE_KW / Main.POWER_MAX_KW);
+    }
+
+    /**
+     * @param spec the {@code hostTypes} scenario value; empty for the default host only
+     */
+    public static List<HostType> parseCatalog(String spec) {
+        List<HostType> catalog = new ArrayList<>();
+        if (spec.trim().isEmpty()) {
+            catalog.add(DEFAULT);
+            return catalog;
+        }
+        for (String entry : spec.split(",")) {
+            String[] hardware = entry.trim().split("@", -1);
+            if (hardware.length > 2) {
+                throw new IllegalArgumentException("Expected at most one power curve but got: " + entry);
+            }
+            String[] parts = hardware[0].split("/");
+            String[] cpu = parts[0].split("x");
+            if (cpu.length != 2 || parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Expected <pes>x<mipsPerPe>/<ramMb>[/<bwMbps>] but got: " + entry);
+            }
+            HostType type = new HostType(Integer.parseInt(cpu[0].trim()), Double.parseDouble(cpu[1].trim()),
+                    Integer.parseInt(parts[1].trim()), parts.length > 2 ? Long.parseLong(parts[2].trim()) : Main.HOST_BW,
+                    hardware.length > 1 ? parsePowerModel(hardware[1].trim()) : null);
+            if (type.pes < 1 || type.mipsPerPe <= 0 || type.ramMb <= 0 || type.bwMbps <= 0) {
+                throw new IllegalArgumentException("Host type needs positive capacities: " + entry);
+            }
+            catalog.add(type);
+        }
+        return catalog;
+    }
+
+    private static PowerModel parsePowerModel(String spec) {
+        switch (spec.toLowerCase()) {
+            case "ml110g4":
+                return new PowerModelSpecPowerHpProLiantMl110G4Xeon3040();
+            case "ml110g5":
+                return new PowerModelSpecPowerHpProLiantMl110G5Xeon3075();
+            default:
+                String[] watts = spec.split("-");
+                if (watts.length != 2) {
+                    throw new IllegalArgumentException("Expected ml110g4, ml110g5 or <idleW>-<maxW> but got: " + spec);
+                }
+                double idle = Double.parseDouble(watts[0].trim());
+                double max = Double.parseDouble(watts[1].trim());
+                if (idle < 0 || max <= 0 || idle > max) {
+                    throw new IllegalArgumentException("Power curve needs 0 <= idle <= max watts: " + spec);
+                }
+                return new PowerModelLinear(max, idle / max);
+        }
+    }
+
+    public int getPes() { return pes; }
+    public double getMipsPerPe() { return mipsPerPe; }
+    public double getTotalMips() { return pes * mipsPerPe; }
+    public int getRamMb() { return ramMb; }
+    public long getBwMbps() { return bwMbps; }
+    public PowerModel getPowerModel() { return powerModel; }
+}
@@ -0,0 +1,221 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Renders a {@link SimulationResult} as the HTML report shown in the GUI and converted to PDF.
+ *
+ * Tables are written straight from the result's columns to an {@link Appendable}, so the report
+ * can be streamed to its consumer in chunks instead of being built as one string. Tables with
+ * more than {@code maxTableRows} rows are summarized: the allocation is cut after that many rows
+ * and the cloudlet table shows the longest-running cloudlets, while the metric sections still
+ * cover every row.
+ */
+public class HtmlReport {
+
+    private static final int CHECK_INTERVAL = 1024;  // rows between progress reports and cancellation checks
+
+    private static final String STYLE = "body { font-family: Arial, sans-serif; margin: 20px; color: #333; }"
+            + "h1 { color: #2c3e50; text-align: center; }"
+            + "h2 { color: #34495e; margin-top: 20px; border-bottom: 2px solid #3498db; padding-bottom: 5px; }"
+            + "table { width: 100%; border-collapse: collapse; margin: 20px 0; background-color: white; }"
+            + "th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }"
+            + "th { background-color: #3498db; color: white; }"
+            + "tr:nth-child(even) { background-color: #f2f2f2; }"
+            + "p { line-height: 1.6; margin: 5px 0; }"
+            + ".summary { font-weight: bold; color: #2c3e50; }"
+            + ".datetime { font-style: italic; color: #7f8c8d; text-align: center; }";
+
+    public static String render(SimulationResult result, String generatedOn, int maxTableRows) {
+        StringBuilder sb = new StringBuilder(4096);
+        try {
+            write(result, generatedOn, sb, maxTableRows, percent -> { });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param progress receives the share of table rows written so far, 0 to 100
+     * @throws InterruptedIOException if the writing thread is interrupted
+     */
+    public static void write(SimulationResult result, String generatedOn, Appendable out, int maxTableRows,
+                             IntConsumer progress) throws IOException {
+        Progress rows = new Progress(result, maxTableRows, progress);
+        out.append("<html><head><style>").append(STYLE).append("</style></head><body>");
+        out.append("<p class=\"datetime\">Generated on ").append(escape(generatedOn)).append("</p>");
+        out.append("<h1>CloudSim Simulation Report</h1>");
+
+        writeClusters(result, out);
+        writeAllocation(result, out, maxTableRows, rows);
+        writeCloudlets(result, out, maxTableRows, rows);
+        writeSummary(result, out);
+        out.append("</body></html>");
+        progress.accept(100);
+    }
+
+    static void writeClusters(SimulationResult result, Appendable out) throws IOException {
+        out.append("<h2>VM Clusters (K-Means)</h2><p>");
+        int[][] clusters = result.getClusters();
+        for (int c = 0; c < clusters.length; c++) {
+            out.append("Cluster ").append(String.valueOf(c)).append(": ");
+            for (int i = 0; i < clusters[c].length; i++) {
+                if (i > 0) out.append(", ");
+                out.append(String.valueOf(clusters[c][i]));
+            }
+            out.append("<br>");
+        }
+        out.append("</p>");
+    }
+
+    static void writeAllocation(SimulationResult result, Appendable out, int maxTableRows, Progress progress) throws IOException {
+        AllocationTable allocation = result.getAllocation();
+        int rows = Math.min(allocation.size(), maxTableRows);
+        out.append("<h2>").append(escape(result.getAlgorithm())).append(" Best Allocation</h2>");
+        if (rows < allocation.size()) {
+            out.append("<p class=\"summary\">First ").append(String.valueOf(rows)).append(" of ")
+                    .append(String.valueOf(allocation.size())).append(" VMs</p>");
+        }
+        out.append("<table><tr><th>VM ID</th><th>MIPS</th><th>Assigned Host</th></tr>");
+        for (int row = 0; row < rows; row++) {
+            out.append("<tr><td>").append(String.valueOf(allocation.getVmId(row)))
+                    .append("</td><td>").append(format(allocation.getMips(row), 1))
+                    .append("</td><td>").append(String.valueOf(allocation.getHost(row))).append("</td></tr>");
+            progress.row();
+        }
+        out.append("</table>");
+    }
+
+    static void writeCloudlets(SimulationResult result, Appendable out, int maxTableRows, Progress progress) throws IOException {
+        CloudletTable cloudlets = result.getCloudlets();
+        if (cloudlets == null) return;
+        out.append("<h2>Cloudlet Results</h2>");
+        int[] rows = null;
+        if (cloudlets.size() > maxTableRows) {
+            rows = cloudlets.longestRunning(maxTableRows);
+            out.append("<p class=\"summary\">The ").append(String.valueOf(rows.length)).append(" longest-running of ")
+                    .append(String.valueOf(cloudlets.size())).append(" cloudlets; the metrics below cover all of them</p>");
+        }
+        out.append("<table><tr><th>CloudletID</th><th>STATUS</th><th>VMID</th><th>Time</th><th>Start</th><th>Finish</th></tr>");
+        int count = rows == null ? cloudlets.size() : rows.length;
+        for (int i = 0; i < count; i++) {
+            writeCloudletRow(cloudlets, rows == null ? i : rows[i], out);
+            progress.row();
+        }
+        out.append("</table>");
+    }
+
+    static void writeCloudletRow(CloudletTable cloudlets, int row, Appendable out) throws IOException {
+        out.append("<tr><td>").append(String.valueOf(cloudlets.getId(row)))
+                .append("</td><td>").append(cloudlets.getStatusName(row))
+                .append("</td><td>").append(String.valueOf(cloudlets.getVmId(row)))
+                .append("</td><td>").append(format(cloudlets.getCpuTime(row), 2))
+                .append("</td><td>").append(format(cloudlets.getStart(row), 2))
+                .append("</td><td>").append(format(cloudlets.getFinish(row), 2)).append("</td></tr>");
+    }
+
+    static void writeSummary(SimulationResult result, Appendable out) throws IOException {
+        MetricsAggregator metrics = result.getMetrics();
+
+        out.append("<h2>Simulation Summary</h2><p>");
+        if (result.isCancelled()) {
+            out.append("<span class=\"summary\">Run stopped early; figures cover only the part that ran.</span><br>");
+        }
+        line(out, "Total successful cloudlets", String.valueOf(result.getSuccessfulCloudlets()));
+        line(out, "Cloudlet Failure Count", String.valueOf(result.getFailedCloudlets()));
+        line(out, "Makespan (s)", format(result.getMakespanSeconds(), 2));
+        line(out, "VM allocation failures", String.valueOf(result.getAllocationFailures()));
+        out.append("</p>");
+
+        out.append("<h2>Energy and Cost Summary</h2><p>");
+        line(out, "Baseline energy (all hosts max power) (kWh)", format(result.getBaselineEnergyKWh(), 6));
+        line(out, "Actual energy consumed (kWh)", format(result.getEnergyKWh(), 6));
+        line(out, "Total energy saved (kWh)", format(result.getEnergySavedKWh(), 6));
+        line(out, "Efficiency (%)", format(result.getEfficiencyPercent(), 2));
+        line(out, "Baseline cost (USD)", "$" + format(result.getBaselineCostUsd(), 4));
+        line(out, "Actual cost (USD)", "$" + format(result.getCostUsd(), 4));
+        if (result.getPowerDatacenterEnergyKWh() >= 0) {
+            line(out, "CloudSim PowerDatacenter energy (kWh)", format(result.getPowerDatacenterEnergyKWh(), 6));
+        }
+        out.append("</p>");
+
+        out.append("<h2>Detailed Simulation Metrics</h2><p>");
+        line(out, "Average Cloudlet Execution Time (s)", format(metrics.getExecTime().getMean(), 3));
+        line(out, "Execution Time p50 / p90 / p99 / max (s)", quantiles(metrics.getExecHistogram(), metrics.getExecTime()));
+        line(out, "Average Cloudlet Waiting Time (s)", format(metrics.getWaitTime().getMean(), 3));
+        line(out, "Waiting Time p50 / p90 / p99 / max (s)", quantiles(metrics.getWaitHistogram(), metrics.getWaitTime()));
+        line(out, "Cloudlet Throughput (cloudlets/sec)", format(result.getThroughput(), 5));
+        line(out, "CPU Load Standard Deviation", format(result.getHostLoadStdDev(), 4));
+        line(out, "Number of Overloaded Hosts (>90% utilization)", String.valueOf(metrics.getOverloadedHosts()));
+        line(out, "Energy consumed per successful Cloudlet (kWh)", format(result.getEnergyPerCloudletKWh(), 6));
+        line(out, "Energy consumed per VM (kWh)", format(result.getEnergyPerVmKWh(), 6));
+        line(out, "Cost per Host (USD)", "$" + format(result.getCostPerHostUsd(), 4));
+        line(out, "Cost per VM (USD)", "$" + format(result.getCostPerVmUsd(), 4));
+        line(out, "Simulation Runtime (Wall Clock, ms)", String.valueOf(result.getWallClockMillis()));
+        out.append("</p>");
+
+        if (result.getConsolidationRounds() > 0) {
+            out.append("<h2>Consolidation Summary</h2><p>");
+            line(out, "Re-optimization rounds", String.valueOf(result.getConsolidationRounds()));
+            line(out, "VM migrations", String.valueOf(result.getMigrations()));
+            line(out, "Total migration time (s)", format(result.getMigrationTime(), 2));
+            line(out, "Load imbalance removed (cost units)", format(result.getBalanceGain(), 2));
+            out.append("</p>");
+        }
+
+        if (result.getInstrumentation() != null) {
+            out.append("<h2>Instrumentation</h2><table><tr><th>Measure</th><th>Value</th></tr>");
+            for (Map.Entry<String, String> entry : result.getInstrumentation().toMap().entrySet()) {
+                out.append("<tr><td>").append(escape(entry.getKey())).append("</td><td>")
+                        .append(entry.getValue()).append("</td></tr>");
+            }
+            out.append("</table>");
+        }
+    }
+
+    /**
+     * Counts written rows, reports progress and checks for cancellation every {@link #CHECK_INTERVAL} rows.
+     */
+    static final class Progress {
+        private final long total;
+        private final IntConsumer listener;
+        private long written;
+
+        Progress(SimulationResult result, int maxTableRows, IntConsumer listener) {
+            CloudletTable cloudlets = result.getCloudlets();
+            this.total = Math.min(result.getAllocation().size(), maxTableRows)
+                    + (cloudlets == null ? 0 : Math.min(cloudlets.size(), maxTableRows));
+            this.listener = listener;
+        }
+
+        void row() throws InterruptedIOException {
+            if (++written % CHECK_INTERVAL != 0) return;
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Report cancelled");
+            }
+            listener.accept((int) (written * 100 / total));
+        }
+    }
+
+    private static String quantiles(LatencyHistogram histogram, RunningStats stats) {
+        return format(histogram.getQuantile(0.50), 3) + " / " + format(histogram.getQuantile(0.90), 3) + " / "
+                + format(histogram.getQuantile(0.99), 3) + " / " + format(stats.getMax(), 3);
+    }
+
+    private static void line(Appendable out, String label, String value) throws IOException {
+        out.append(escape(label)).append(": ").append(value).append("<br>");
+    }
+
+    static String format(double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
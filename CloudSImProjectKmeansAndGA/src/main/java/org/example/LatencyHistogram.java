@@ -0,0 +1,64 @@
+package org.example;
+
+/**
+ * Fixed-size log-linear histogram of durations for approximate quantiles.
+ *
+ * Values are recorded in microseconds. Below {@code 2^SUB_BITS} microseconds every value has its own
+ * bucket; above, each power of two is split into {@code 2^SUB_BITS} linear buckets, so a
+ * quantile is off by at most about 3% whatever the number of recorded values.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long maxMicros;
+
+    /**
+     * @param seconds duration to record; negative values count as 0
+     */
+    public void record(double seconds) {
+        long micros = Math.max(0, Math.round(seconds * 1_000_000.0));
+        counts[index(micros)]++;
+        total++;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BITS;
+        int top = (int) (micros >>> shift);  // in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long top = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.99
+     * @return upper bound in seconds of the bucket holding that quantile, never above the maximum
+     */
+    public double getQuantile(double quantile) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), maxMicros) / 1_000_000.0;
+            }
+        }
+        return maxMicros / 1_000_000.0;
+    }
+
+    public long getCount() { return total; }
+    public double getMax() { return maxMicros / 1_000_000.0; }
+}
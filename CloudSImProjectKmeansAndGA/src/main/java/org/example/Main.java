@@ -2,8 +2,13 @@ package org.example;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.*;
 
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -14,161 +19,462 @@ public class Main {
     static final int K_CLUSTERS = 5;
     static final int GA_POPULATION = 20;
     static final int GA_GENERATIONS = 20;
+    static final double GA_GUIDED_MUTATION = 0.5;  // share of mutations that move a VM to the least-loaded host with room
 
-    public static void main(String[] args) {
-        try {
-            CloudSim.init(1, Calendar.getInstance(), false);
+    static final String ALGORITHM = "GA";
+    static final String ALGORITHM_ID = "GA";       // short name accepted by CliRunner --algorithm
 
-            Datacenter datacenter = createDatacenter("Datacenter");
-            DatacenterBroker broker = new DatacenterBroker("Broker");
+    static final double HOST_PE_MIPS = 2000;
+    static final int HOST_RAM = 8192;
+    static final long HOST_BW = 10000;
 
-            List<Vm> vms = createVMs(broker.getId(), NUM_VMS);
-            List<Cloudlet> cloudlets = createCloudlets(broker.getId(), NUM_VMS);
+    static final double REOPTIMIZE_INTERVAL = 0.0;   // seconds, 0 disables re-optimization
+    static final double MIGRATION_THRESHOLD = 50.0;  // Imbalance cost a migration must remove (about MIPS on identical hosts)
 
-            Map<Integer, List<Vm>> clusters = kMeansClustering(vms, K_CLUSTERS);
-            System.out.println("\n=== VM Clusters (K-Means) ===");
-            for (Map.Entry<Integer, List<Vm>> entry : clusters.entrySet()) {
-                System.out.println("Cluster " + entry.getKey() + ": "
-                        + entry.getValue().stream()
-                        .map(vm -> String.valueOf(vm.getId()))
-                        .collect(Collectors.joining(", ")));
-            }
+    static final int MAX_IN_FLIGHT = 1000;           // cloudlets a streaming broker keeps submitted at once
 
-            int[] bestAllocation = runGA(datacenter.getHostList(), vms, GA_POPULATION, GA_GENERATIONS);
+    static final int RACK_SIZE = 10;                 // hosts per rack in the default topology
+    static final double TRAFFIC_WEIGHT = 50.0;       // cost per hop (or BRITE delay unit) of each communicating VM pair
 
-            // 👇 1. Manual VM allocation based on GA
-            allocateVMsByAllocation(datacenter, vms, bestAllocation);
+    static final double POWER_IDLE_KW = 0.1; // kW of the default host; other host types scale with their MIPS
+    static final double POWER_MAX_KW = 0.4;  // kW of the default host at full load
+    static final double COST_PER_KWH = 0.12; // USD per kWh (example)
+    static final double COST_PER_SECOND = 3.0; // datacenter price used when a datacenters entry names none
 
-            // 👇 2. Register VMs with broker so it can assign cloudlets to them
-            broker.submitVmList(vms);
+    // Power-aware mode without hostTypes: the default hardware with SPECpower curves, alternating
+    static final String POWER_AWARE_HOST_TYPES = "4x2000/8192@ml110g4,4x2000/8192@ml110g5";
+    static final double POWER_SCHEDULING_INTERVAL = 1.0; // seconds between PowerDatacenter updates
 
-            // 👇 3. Submit cloudlets
-            broker.submitCloudletList(cloudlets);
+    // Human-readable report of the current run; scenarios with console=false send it nowhere
+    static PrintStream console = System.out;
 
-            // ADDED: Start measuring wall clock time before simulation
-            long startTime = System.currentTimeMillis();  // ADDED
+    private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
 
-            // 👇 4. Start simulation
-            CloudSim.startSimulation();
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
 
-            // ADDED: End measuring wall clock time after simulation
-            long endTime = System.currentTimeMillis();  // ADDED
-            long wallClockMillis = endTime - startTime; // ADDED
+    public static void main(String[] args) {
+        try {
+            SimulationResult result = run(Scenario.defaults());
+            if (result.getAllocationFailures() > 0) {
+                System.exit(CliRunner.EXIT_ALLOCATION_FAILED);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(CliRunner.EXIT_ERROR);
+        }
+    }
 
-            List<Cloudlet> results = broker.getCloudletReceivedList();
+    public static SimulationResult run(Scenario scenario) throws Exception {
+        return run(scenario, new OptimizerMonitor(), new CancellationToken());
+    }
 
-            CloudSim.stopSimulation();
+    /**
+     * @param monitor receives the optimizer's progress; read it from another thread to follow the search
+     * @param cancel stops the run early when cancelled from another thread; the result then covers the part that ran
+     */
+    public static SimulationResult run(Scenario scenario, OptimizerMonitor monitor, CancellationToken cancel) throws Exception {
+        Random rand = new Random(scenario.getSeed());
+        SimulationResult result = new SimulationResult(scenario);
+        result.algorithm = ALGORITHM;
+        Instrumentation instrumentation = new Instrumentation();
+        result.instrumentation = instrumentation;
+
+        console = scenario.isConsole() ? System.out : DISCARD;
+        Log.setDisabled(!scenario.isConsole());
+        CloudSim.init(1, Calendar.getInstance(), false);
+        SimulationProbe.reset(cancel);
+        MonitoringBeans.register("Optimizer", monitor);
+        MonitoringBeans.register("Simulation", new SimulationMonitor(scenario, instrumentation));
+
+        Instrumentation.Phase phase = instrumentation.start("datacenter");
+        // One datacenter unless the scenario lists several; host ids run on across datacenters
+        List<FederatedPlacement.Site> sites = FederatedPlacement.parseSites(scenario.getDatacenters(), scenario.getNumHosts(), COST_PER_SECOND);
+        boolean federated = sites.size() > 1;
+        List<HostType> catalog = HostType.parseCatalog(scenario.getHostTypes().trim().isEmpty() && scenario.isPowerAware()
+                ? POWER_AWARE_HOST_TYPES : scenario.getHostTypes());
+        List<Host> allHosts = new ArrayList<>();
+        List<PowerModel> powerModels = new ArrayList<>();
+        List<List<Host>> siteHosts = new ArrayList<>();
+        for (FederatedPlacement.Site site : sites) {
+            List<Host> hosts = createHosts(allHosts.size(), site.getHosts(), catalog, scenario.isPowerAware(), powerModels);
+            siteHosts.add(hosts);
+            allHosts.addAll(hosts);
+        }
+        // Idle hosts are switched off in power-aware mode
+        HostUtilizationSampler sampler = new HostUtilizationSampler(allHosts, powerModels.toArray(new PowerModel[0]),
+                scenario.isPowerAware(), HostUtilizationSampler.DEFAULT_CAPACITY);
+
+        List<Datacenter> datacenters = new ArrayList<>();
+        List<DatacenterCharacteristics> characteristics = new ArrayList<>();
+        List<OptimizedVmAllocationPolicy> allocationPolicies = new ArrayList<>();
+        List<PlacementOptimizer> optimizers = new ArrayList<>();
+        List<TrafficModel> traffics = new ArrayList<>();
+        List<Random> siteRandoms = new ArrayList<>();
+        for (int d = 0; d < sites.size(); d++) {
+            // Every datacenter draws from its own stream so that parallel optimizers stay reproducible
+            Random siteRand = federated ? new Random(scenario.getSeed() + d) : rand;
+            PlacementOptimizer search = search(scenario, siteRand, monitor, cancel);
+            PlacementOptimizer optimizer = problem -> {
+                try (Instrumentation.Phase ignored = instrumentation.start("optimization")) {
+                    monitor.begin();
+                    return search.optimize(problem);
+                } finally {
+                    monitor.end();
+                }
+            };
+            TrafficModel traffic = createTrafficModel(scenario, sites.get(d).getHosts());
+            DatacenterCharacteristics siteCharacteristics = createCharacteristics(siteHosts.get(d), sites.get(d).getCostPerSecond());
+            Datacenter datacenter = createDatacenter(federated ? "Datacenter_" + d : "Datacenter", siteCharacteristics,
+                    scenario.isPowerAware(), traffic, sampler, problem -> {
+                        int[] allocation = optimizer.optimize(problem);
+                        recordAllocation(result, problem, allocation);
+                        return allocation;
+                    });
+            datacenters.add(datacenter);
+            characteristics.add(siteCharacteristics);
+            allocationPolicies.add((OptimizedVmAllocationPolicy) datacenter.getVmAllocationPolicy());
+            optimizers.add(optimizer);
+            traffics.add(traffic);
+            siteRandoms.add(siteRand);
+        }
+        // Streaming mode pulls cloudlets lazily from a generator or trace instead of a prepared list
+        // and folds returned cloudlets into aggregates instead of keeping them
+        AggregatingBroker streamingBroker = null;
+        FederatedBroker broker;
+        if (scenario.isStreamCloudlets()) {
+            CloudletLog cloudletLog = scenario.getCloudletLog().isEmpty() ? null : new CloudletLog(Paths.get(scenario.getCloudletLog()));
+            // Rows are only kept, as primitive columns, on request; the binary log is the constant-memory record
+            result.cloudlets = scenario.isCloudletRows() ? new CloudletTable() : null;
+            streamingBroker = new AggregatingBroker("Broker", createCloudletSource(scenario, rand), scenario.getMaxInFlight(),
+                    cloudletLog, result.cloudlets);
+            broker = streamingBroker;
+        } else {
+            broker = new FederatedBroker("Broker");
+        }
+        List<ConsolidationManager> consolidations = new ArrayList<>();
+        if (scenario.getReoptimizeInterval() > 0) {
+            for (int d = 0; d < datacenters.size(); d++) {
+                consolidations.add(new ConsolidationManager(federated ? "Consolidation_" + d : "Consolidation", datacenters.get(d),
+                        broker, optimizers.get(d), traffics.get(d), scenario.getReoptimizeInterval(), scenario.getMigrationThreshold()));
+            }
+        }
 
-            printCloudletList(results);
+        phase.stop();
+
+        phase = instrumentation.start("workload");
+        List<Vm> vms;
+        List<Cloudlet> cloudlets;
+        if (streamingBroker != null) {
+            vms = createVMs(broker.getId(), scenario.getNumVms(), scenario.isPowerAware(), rand);
+            cloudlets = new ArrayList<>();
+        } else if (scenario.getTrace().isEmpty()) {
+            vms = createVMs(broker.getId(), scenario.getNumVms(), scenario.isPowerAware(), rand);
+            cloudlets = createCloudlets(broker.getId(), scenario.getNumVms(), rand);
+        } else {
+            vms = new ArrayList<>();
+            cloudlets = new ArrayList<>();
+            try (WorkloadTrace trace = TraceWorkload.open(scenario.getTraceFormat(), Paths.get(scenario.getTrace()), HOST_PE_MIPS, HOST_RAM)) {
+                TraceWorkload.load(trace, broker.getId(), scenario.getTraceLimit(), scenario.isPowerAware(), vms, cloudlets);
+            }
+        }
 
-            // Count successful cloudlets
-            long successfulCloudlets = results.stream()
-                    .filter(c -> c.getStatus() == Cloudlet.SUCCESS)
-                    .count();
+        phase.stop();
+
+        phase = instrumentation.start("clustering");
+        Map<Integer, List<Vm>> clusters = kMeansClustering(vms, scenario.getKClusters());
+        result.clusters = new int[clusters.size()][];
+        console.println("\n=== VM Clusters (K-Means) ===");
+        for (Map.Entry<Integer, List<Vm>> entry : clusters.entrySet()) {
+            result.clusters[entry.getKey()] = entry.getValue().stream().mapToInt(Vm::getId).toArray();
+            console.println("Cluster " + entry.getKey() + ": "
+                    + entry.getValue().stream()
+                    .map(vm -> String.valueOf(vm.getId()))
+                    .collect(Collectors.joining(", ")));
+        }
 
-            // Get last cloudlet finish time in seconds
-            double lastFinishTime = results.stream()
-                    .mapToDouble(Cloudlet::getFinishTime)
-                    .max()
-                    .orElse(0.0);
+        phase.stop();
 
-            // Print summary
-            System.out.println("\n=== Simulation Summary ===");
-            System.out.printf("Total successful cloudlets: %d\n", successfulCloudlets);
+        if (!federated) {
+            // 1. Queue the VMs as one batch; the policy runs GA when the datacenter asks for the first host
+            allocationPolicies.get(0).submitBatch(vms);
+        } else {
+            // 1. Spread the VMs over the datacenters, then run GA on every datacenter's batch in parallel
+            placeFederated(scenario, vms, datacenters, characteristics, allocationPolicies, siteRandoms, broker, result,
+                    instrumentation, monitor, cancel);
+        }
 
-            // Print energy and cost summary
-            printEnergySummary(datacenter.getHostList(), lastFinishTime);
+        // 2. Register VMs with broker so it can assign cloudlets to them
+        broker.submitVmList(vms);
 
-            // ADDED: Print detailed additional metrics after simulation
-            printDetailedMetrics(results, vms, datacenter.getHostList(), lastFinishTime, wallClockMillis);  // ADDED
+        // 3. Submit cloudlets
+        broker.submitCloudletList(cloudlets);
 
-        } catch (Exception e) {
-            e.printStackTrace(); // or log it
-        }
-    }
+        long startTime = System.currentTimeMillis();
+
+        // 4. Start simulation
+        phase = instrumentation.start("simulation");
+        Object simulationEvent = FlightEvents.get().beginSimulation();
+        CloudSim.startSimulation();
+        FlightEvents.get().endSimulation(simulationEvent, scenario.getName(), CloudSim.clock(), SimulationProbe.getEvents(), cancel.isCancelled());
+        phase.stop();
 
-    // Put this method here inside the class
-    public static double calculateAverageHostUtilization(List<Host> hostList) {
-        double totalUtilization = 0.0;
-        int hostCount = hostList.size();
+        long wallClockMillis = System.currentTimeMillis() - startTime;
 
-        for (Host host : hostList) {
-            double hostUtil = 0.0;
+        List<Cloudlet> results = broker.getCloudletReceivedList();
 
-            for (Pe pe : host.getPeList()) {
-                hostUtil += pe.getPeProvisioner().getUtilization();
+        CloudSim.stopSimulation();
+
+        phase = instrumentation.start("metrics");
+
+        // One pass over the finished cloudlets; a streaming broker already folded them during the run
+        MetricsAggregator metrics;
+        if (streamingBroker != null) {
+            metrics = streamingBroker.getMetrics();
+        } else {
+            metrics = new MetricsAggregator();
+            result.cloudlets = new CloudletTable(results.size());
+            for (Cloudlet cloudlet : results) {
+                metrics.add(cloudlet);
+                result.cloudlets.add(cloudlet);
             }
+            printCloudletList(result.cloudlets);
+        }
+        double lastFinishTime = metrics.getLastFinishTime();
 
-            hostUtil /= host.getPeList().size();
+        sampler.finish(lastFinishTime);
+        metrics.addHosts(sampler);
 
-            totalUtilization += hostUtil;
+        result.metrics = metrics;
+        result.hostUtilization = sampler;
+        result.vmCount = vms.size();
+        for (OptimizedVmAllocationPolicy allocationPolicy : allocationPolicies) {
+            result.allocationFailures += allocationPolicy.getAllocationFailures();
+        }
+        result.totalCloudlets = (int) metrics.getTotal();
+        result.successfulCloudlets = (int) metrics.getSuccessful();
+        result.makespanSeconds = lastFinishTime;
+        result.avgExecTime = metrics.getExecTime().getMean();
+        result.averageHostUtilization = sampler.getAverageUtilization();
+        result.energyKWh = sampler.getEnergyKWh();
+        result.baselineEnergyKWh = sampler.getPeakPowerKw() * lastFinishTime / 3600.0;
+        result.costUsd = result.energyKWh * COST_PER_KWH;
+        result.wallClockMillis = wallClockMillis;
+        result.cancelled = cancel.isCancelled();
+        for (Datacenter datacenter : datacenters) {
+            if (datacenter instanceof MonitoredPowerDatacenter) {
+                result.powerDatacenterEnergyKWh = Math.max(result.powerDatacenterEnergyKWh, 0)
+                        + ((MonitoredPowerDatacenter) datacenter).getEnergyKWh();
+            }
+        }
+        for (ConsolidationManager consolidation : consolidations) {
+            result.consolidationRounds += consolidation.getRounds();
+            result.migrations += consolidation.getMigrations();
+            result.migrationTime += consolidation.getMigrationTime();
+            result.balanceGain += consolidation.getBalanceGain();
         }
 
-        return (hostCount > 0) ? totalUtilization / hostCount : 0.0;
-    }
+        // Print summary
+        console.println("\n=== Simulation Summary ===");
+        if (result.isCancelled()) {
+            console.println("Run stopped early; figures cover only the part that ran.");
+        }
+        console.printf("Total successful cloudlets: %d\n", result.getSuccessfulCloudlets());
 
-    // Modified printEnergySummary with cost calculations added
-    public static void printEnergySummary(List<Host> hosts, double simulationSeconds) {
-        double simulationHours = simulationSeconds / 3600.0;
+        // Print energy and cost summary
+        printEnergySummary(result);
+        if (result.getPowerDatacenterEnergyKWh() >= 0) {
+            console.printf("CloudSim PowerDatacenter energy (kWh): %.6f\n", result.getPowerDatacenterEnergyKWh());
+        }
 
-        double powerIdle = 0.1; // kW per host
-        double powerMax = 0.4;  // kW per host
+        printDetailedMetrics(result);
+        if (streamingBroker != null) {
+            printStreamingSummary(streamingBroker);
+        }
 
-        double averageUtilization = calculateAverageHostUtilization(hosts);
+        if (!consolidations.isEmpty()) {
+            printConsolidationSummary(result);
+        }
+        phase.stop();
+
+        double simulationSeconds = instrumentation.getNanos("simulation") / 1e9;
+        long allocationNanos = 0;
+        long allocations = 0;
+        long optimizerCalls = 0;
+        for (OptimizedVmAllocationPolicy allocationPolicy : allocationPolicies) {
+            allocationNanos += allocationPolicy.getAllocationNanos();
+            allocations += allocationPolicy.getAllocations();
+            optimizerCalls += allocationPolicy.getOptimizerCalls();
+        }
+        instrumentation.addPhase("allocation", allocationNanos, allocations);
+        instrumentation.setCounter("optimizerCalls", optimizerCalls);
+        instrumentation.setCounter("events", SimulationProbe.getEvents());
+        instrumentation.setCounter("eventsPerSecond", simulationSeconds > 0 ? SimulationProbe.getEvents() / simulationSeconds : 0.0);
+        instrumentation.setCounter("futureQueueHighWater", SimulationProbe.getFutureHighWater());
+        console.println("\n=== Instrumentation ===");
+        console.println(instrumentation.toJson());
+
+        if (!scenario.getArchiveDir().isEmpty()) {
+            console.println("Run archived to " + RunArchive.write(result, Paths.get(scenario.getArchiveDir())));
+        }
+        return result;
+    }
 
-        double actualPowerPerHost = powerIdle + averageUtilization * (powerMax - powerIdle);
+    // Actual energy is integrated by the sampler over the simulated timeline
+    public static void printEnergySummary(SimulationResult result) {
+        console.println("\n=== Energy and Cost Summary ===");
+        console.printf("Baseline energy (all hosts max power) (kWh): %.6f\n", result.getBaselineEnergyKWh());
+        console.printf("Actual energy consumed (kWh): %.6f\n", result.getEnergyKWh());
+        console.printf("Total energy saved (kWh): %.6f\n", result.getEnergySavedKWh());
+        console.printf("Simulation time (hours): %.2f\n", result.getMakespanSeconds() / 3600.0);
+        console.printf("Efficiency (%%): %.2f%%\n", result.getEfficiencyPercent());
+
+        console.printf("Baseline cost (USD): $%.4f\n", result.getBaselineCostUsd());
+        console.printf("Actual cost (USD): $%.4f\n", result.getCostUsd());
+        console.printf("Total cost saved (USD): $%.4f\n", result.getBaselineCostUsd() - result.getCostUsd());
+    }
+
+    static PlacementOptimizer search(Scenario scenario, Random rand, OptimizerMonitor monitor, CancellationToken cancel) {
+        return problem -> runGA(problem, scenario.getPopulationSize(), scenario.getGenerations(), rand, monitor, cancel);
+    }
+
+    /**
+     * Assigns every VM a datacenter, then optimizes all datacenters' batches at once before the
+     * simulation starts. The largest batch reports progress to {@code monitor}; the others only
+     * add to its counters.
+     */
+    private static void placeFederated(Scenario scenario, List<Vm> vms, List<Datacenter> datacenters,
+                                       List<DatacenterCharacteristics> characteristics,
+                                       List<OptimizedVmAllocationPolicy> allocationPolicies, List<Random> siteRandoms,
+                                       FederatedBroker broker, SimulationResult result, Instrumentation instrumentation,
+                                       OptimizerMonitor monitor, CancellationToken cancel) throws InterruptedException {
+        int[] siteOfVm = FederatedPlacement.assignDatacenters(vms, characteristics);
+        Map<Integer, Integer> vmDatacenters = new HashMap<>();
+        List<Integer> busySites = new ArrayList<>();
+        List<PlacementProblem> problems = new ArrayList<>();
+        for (int d = 0; d < datacenters.size(); d++) {
+            List<Vm> batch = new ArrayList<>();
+            for (int i = 0; i < vms.size(); i++) {
+                if (siteOfVm[i] != d) continue;
+                batch.add(vms.get(i));
+                vmDatacenters.put(vms.get(i).getId(), datacenters.get(d).getId());
+            }
+            if (batch.isEmpty()) continue;
+            allocationPolicies.get(d).submitBatch(batch);
+            busySites.add(d);
+            problems.add(allocationPolicies.get(d).pendingProblem());
+        }
 
-        double baselineEnergy = hosts.size() * powerMax * simulationHours;
-        double actualEnergy = hosts.size() * actualPowerPerHost * simulationHours;
-        double energySaved = baselineEnergy - actualEnergy;
+        int largest = 0;
+        for (int p = 1; p < problems.size(); p++) {
+            if (FederatedPlacement.size(problems.get(p)) > FederatedPlacement.size(problems.get(largest))) largest = p;
+        }
+        List<PlacementOptimizer> searches = new ArrayList<>();
+        for (int p = 0; p < problems.size(); p++) {
+            searches.add(search(scenario, siteRandoms.get(busySites.get(p)), p == largest ? monitor : monitor.counting(), cancel));
+        }
 
-        double efficiency = (energySaved / baselineEnergy) * 100.0;
+        int[][] allocations;
+        try (Instrumentation.Phase ignored = instrumentation.start("optimization")) {
+            monitor.begin();
+            allocations = FederatedPlacement.optimizeAll(problems, searches,
+                    Math.min(problems.size(), Runtime.getRuntime().availableProcessors()));
+        } finally {
+            monitor.end();
+        }
+        for (int p = 0; p < problems.size(); p++) {
+            allocationPolicies.get(busySites.get(p)).acceptPending(allocations[p]);
+            recordAllocation(result, problems.get(p), allocations[p]);
+        }
+        broker.setVmDatacenters(vmDatacenters);
+    }
 
-        // Cost calculations
-        double costPerKWh = 0.12; // USD per kWh (example)
-        double baselineCost = baselineEnergy * costPerKWh;
-        double actualCost = actualEnergy * costPerKWh;
-        double costSaved = baselineCost - actualCost;
+    private static void recordAllocation(SimulationResult result, PlacementProblem problem, int[] allocation) {
+        for (int i = 0; i < allocation.length; i++) {
+            result.allocation.add(problem.getVms().get(i).getId(), problem.vmMips[i], problem.getHosts().get(allocation[i]).getId());
+        }
+        printBestAllocation(problem, allocation);
+    }
 
-        System.out.println("\n=== Energy and Cost Summary ===");
-        System.out.printf("Baseline energy (all hosts max power) (kWh): %.6f\n", baselineEnergy);
-        System.out.printf("Actual energy consumed (kWh): %.6f\n", actualEnergy);
-        System.out.printf("Total energy saved (kWh): %.6f\n", energySaved);
-        System.out.printf("Simulation time (hours): %.2f\n", simulationHours);
-        System.out.printf("Efficiency (%%): %.2f%%\n", efficiency);
+    private static CloudletSource createCloudletSource(Scenario scenario, Random rand) throws Exception {
+        if (scenario.getTrace().isEmpty()) {
+            return new SyntheticCloudletSource(scenario.getNumCloudlets(), rand);
+        }
+        WorkloadTrace trace = TraceWorkload.open(scenario.getTraceFormat(), Paths.get(scenario.getTrace()), HOST_PE_MIPS, HOST_RAM);
+        return new TraceCloudletSource(trace, scenario.getTraceLimit());
+    }
 
-        System.out.printf("Baseline cost (USD): $%.4f\n", baselineCost);
-        System.out.printf("Actual cost (USD): $%.4f\n", actualCost);
-        System.out.printf("Total cost saved (USD): $%.4f\n", costSaved);
+    private static TrafficModel createTrafficModel(Scenario scenario, int numHosts) throws Exception {
+        if (scenario.getAffinity().isEmpty()) {
+            return null;
+        }
+        HostLatencyMatrix latency = scenario.getTopology().isEmpty()
+                ? HostLatencyMatrix.rackTree(numHosts, RACK_SIZE)
+                : HostLatencyMatrix.fromBrite(scenario.getTopology(), numHosts);
+        return new TrafficModel(latency, TrafficModel.parseGroups(scenario.getAffinity()), scenario.getTrafficWeight());
     }
 
-    private static Datacenter createDatacenter(String name) throws Exception {
+    /**
+     * @param firstId     id of the first host; ids continue across datacenters
+     * @param catalog     host types, taken round-robin by host id
+     * @param powerModels receives the power curve of each new host
+     */
+    static List<Host> createHosts(int firstId, int numHosts, List<HostType> catalog, boolean powerAware,
+                                  List<PowerModel> powerModels) {
         List<Host> hostList = new ArrayList<>();
-        for (int i = 0; i < NUM_HOSTS; i++) {
+        for (int i = firstId; i < firstId + numHosts; i++) {
+            HostType type = catalog.get(i % catalog.size());
             List<Pe> peList = new ArrayList<>();
-            for (int j = 0; j < 4; j++) {
-                peList.add(new Pe(j, new PeProvisionerSimple(2000)));
+            for (int j = 0; j < type.getPes(); j++) {
+                peList.add(new Pe(j, new PeProvisionerSimple(type.getMipsPerPe())));
+            }
+            Host host;
+            PowerModel powerModel = type.getPowerModel();
+            powerModels.add(powerModel);
+            if (powerAware) {
+                host = new PowerHost(i, new RamProvisionerSimple(type.getRamMb()), new BwProvisionerSimple(type.getBwMbps()), 1000000, peList,
+                        new VmSchedulerTimeSharedOverSubscription(peList), powerModel);
+            } else {
+                host = new Host(i, new RamProvisionerSimple(type.getRamMb()), new BwProvisionerSimple(type.getBwMbps()), 1000000, peList,
+                        new VmSchedulerTimeShared(peList));
             }
-            Host host = new Host(i, new RamProvisionerSimple(8192), new BwProvisionerSimple(10000), 1000000, peList, new VmSchedulerTimeShared(peList));
             hostList.add(host);
         }
-        DatacenterCharacteristics characteristics = new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
-        return new Datacenter(name, characteristics, new VmAllocationPolicySimple(hostList), new LinkedList<Storage>(), 0);
+        return hostList;
+    }
+
+    private static DatacenterCharacteristics createCharacteristics(List<Host> hostList, double costPerSecond) {
+        return new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, costPerSecond, 0.05, 0.001, 0.0);
     }
 
-    private static List<Vm> createVMs(int brokerId, int count) {
-        Random rand = new Random();
+    private static Datacenter createDatacenter(String name, DatacenterCharacteristics characteristics, boolean powerAware,
+                                               TrafficModel traffic, HostUtilizationSampler sampler,
+                                               PlacementOptimizer optimizer) throws Exception {
+        VmAllocationPolicy allocationPolicy = new OptimizedVmAllocationPolicy(characteristics.getHostList(), optimizer, traffic);
+        if (powerAware) {
+            return new MonitoredPowerDatacenter(name, characteristics, allocationPolicy, new LinkedList<Storage>(), POWER_SCHEDULING_INTERVAL, sampler);
+        }
+        return new MonitoredDatacenter(name, characteristics, allocationPolicy, new LinkedList<Storage>(), 0, sampler);
+    }
+
+    private static List<Vm> createVMs(int brokerId, int count, boolean powerAware, Random rand) {
         List<Vm> list = new ArrayList<>();
         for (int i = 0; i < count; i++) {
             int mips = 250 + rand.nextInt(200); // Random MIPS between 250 and 450
-            Vm vm = new Vm(i, brokerId, mips, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared());
+            // PowerHost re-shares its PEs on every update by each VM's requested MIPS, which only the dynamic workload scheduler reports
+            CloudletScheduler scheduler = powerAware ? new CloudletSchedulerDynamicWorkload(mips, 1) : new CloudletSchedulerTimeShared();
+            Vm vm = new Vm(i, brokerId, mips, 1, 512, 1000, 10000, "Xen", scheduler);
             list.add(vm);
         }
         return list;
     }
 
-    private static List<Cloudlet> createCloudlets(int brokerId, int count) {
-        Random rand = new Random();
+    private static List<Cloudlet> createCloudlets(int brokerId, int count, Random rand) {
         List<Cloudlet> list = new ArrayList<>();
         for (int i = 0; i < count; i++) {
             long length = 50000 + rand.nextInt(20000); // Random length between 30000 and 50000
@@ -189,7 +495,9 @@ public class Main {
 
         Map<Integer, List<Vm>> clusters;
         boolean changed;
+        int iteration = 0;
         do {
+            Object event = FlightEvents.get().beginKMeansIteration();
             clusters = new HashMap<>();
             for (int i = 0; i < k; i++) {
                 clusters.put(i, new ArrayList<>());
@@ -214,14 +522,15 @@ public class Main {
                     changed = true;
                 }
             }
+            FlightEvents.get().endKMeansIteration(event, iteration++, vmList.size(), k, changed);
         } while (changed);
         return clusters;
     }
 
-    private static int[] runGA(List<Host> hosts, List<Vm> vms, int populationSize, int generations) {
-        Random rand = new Random();
-        int numVMs = vms.size();
-        int numHosts = hosts.size();
+    private static int[] runGA(PlacementProblem problem, int populationSize, int generations, Random rand,
+                               OptimizerMonitor monitor, CancellationToken cancel) {
+        int numVMs = problem.getNumVms();
+        int numHosts = problem.getNumHosts();
 
         int[][] population = new int[populationSize][numVMs];
         for (int i = 0; i < populationSize; i++) {
@@ -229,23 +538,45 @@ public class Main {
             for (int h = 0; h < numHosts; h++) {
                 hostIds.add(h);
             }
-            Collections.shuffle(hostIds);  // randomize host order
+            Collections.shuffle(hostIds, rand);  // randomize host order
             for (int j = 0; j < numVMs; j++) {
                 population[i][j] = hostIds.get(rand.nextInt(numHosts));  // assign random host from full range
             }
         }
 
+        int[] initial = problem.getInitial();
+        if (initial != null) {
+            // Warm start: keep the current allocation and seed the rest with single-VM moves from it
+            population[0] = initial.clone();
+            for (int i = 1; i < populationSize; i++) {
+                population[i] = initial.clone();
+                population[i][rand.nextInt(numVMs)] = rand.nextInt(numHosts);
+            }
+        } else {
+            // Cold start: one individual starts from the greedy least-loaded placement
+            population[0] = problem.greedyAllocation();
+        }
+
         int[] bestIndividual = population[0];
         double bestFitness = Double.MAX_VALUE;
 
-        for (int gen = 0; gen < generations; gen++) {
+        // Capacity index kept on the best individual's loads. A guided mutation moves it to the
+        // child's genes and back, O(genes that differ * log H), instead of rebuilding it for the fleet
+        HostCapacityIndex index = problem.capacityIndex(problem.cpuLoad(bestIndividual), problem.ramLoad(bestIndividual));
+        int[] indexed = bestIndividual;
+
+        for (int gen = 0; gen < generations && !cancel.isCancelled(); gen++) {
+            double totalFitness = 0;
             for (int i = 0; i < populationSize; i++) {
-                double fitness = evaluateFitness(population[i], hosts, vms);
+                double fitness = evaluateFitness(population[i], problem);
+                monitor.evaluated();
+                totalFitness += fitness;
                 if (fitness < bestFitness) {
                     bestFitness = fitness;
                     bestIndividual = population[i].clone();
                 }
             }
+            monitor.publish(gen, bestFitness, totalFitness / populationSize, populationDiversity(population, bestIndividual));
             for (int i = 1; i < populationSize; i++) {
                 int[] parent1 = bestIndividual;
                 int[] parent2 = population[rand.nextInt(populationSize)];
@@ -255,117 +586,127 @@ public class Main {
                 }
                 if (rand.nextDouble() < 0.2) // mutation
                 {
-                    child[rand.nextInt(numVMs)] = rand.nextInt(numHosts);
+                    int vm = rand.nextInt(numVMs);
+                    int host = rand.nextInt(numHosts);
+                    if (rand.nextDouble() < GA_GUIDED_MUTATION) {
+                        if (indexed != bestIndividual) {
+                            moveIndex(index, indexed, bestIndividual, problem);
+                            indexed = bestIndividual;
+                        }
+                        int fit = leastLoadedFor(index, indexed, child, vm, problem);
+                        if (fit >= 0) host = fit;
+                    }
+                    child[vm] = host;
                 }
                 population[i] = child;
             }
         }
 
-        System.out.println("\n=== GA Best Allocation ===");
-        System.out.println("VMID\tMIPS\tAssigned Host");
-        for (int i = 0; i < bestIndividual.length; i++) {
-            System.out.println(i + "\t" + vms.get(i).getMips() + "\t" + bestIndividual[i]);
-        }
         return bestIndividual;
     }
 
-    private static double evaluateFitness(int[] allocation, List<Host> hosts, List<Vm> vms) {
-        int[] cpuLoad = new int[hosts.size()];
-        for (int i = 0; i < allocation.length; i++) {
-            cpuLoad[allocation[i]] += vms.get(i).getMips();
-        }
-        double imbalance = 0.0;
-        double avgLoad = Arrays.stream(cpuLoad).average().orElse(1);
-        for (int load : cpuLoad) {
-            imbalance += Math.abs(load - avgLoad);
+    // Least-loaded host with room for the VM under the child's genes, not counting the VM itself;
+    // the index reflects the indexed allocation before and after
+    private static int leastLoadedFor(HostCapacityIndex index, int[] indexed, int[] child, int vm, PlacementProblem problem) {
+        moveIndex(index, indexed, child, problem);
+        index.add(child[vm], -problem.vmMips[vm], -problem.vmRam[vm]);
+        int fit = index.leastLoaded(problem.vmMips[vm], problem.vmRam[vm]);
+        index.add(child[vm], problem.vmMips[vm], problem.vmRam[vm]);
+        moveIndex(index, child, indexed, problem);
+        return fit;
+    }
+
+    private static void moveIndex(HostCapacityIndex index, int[] from, int[] to, PlacementProblem problem) {
+        for (int j = 0; j < from.length; j++) {
+            if (from[j] != to[j]) {
+                index.move(from[j], to[j], problem.vmMips[j], problem.vmRam[j]);
+            }
         }
-        return imbalance;
     }
 
-    private static void allocateVMsByAllocation(Datacenter datacenter, List<Vm> vms, int[] allocation) {
-        List<Host> hosts = datacenter.getHostList();
-        for (int i = 0; i < vms.size(); i++) {
-            Host host = hosts.get(allocation[i]);
-            if (host.vmCreate(vms.get(i))) {
-                System.out.printf("VM #%d allocated to Host #%d\n", vms.get(i).getId(), host.getId());
-            } else {
-                System.out.printf("Failed to allocate VM #%d to Host #%d\n", vms.get(i).getId(), host.getId());
+    // Mean share of genes in which an individual differs from the best one (0 = converged)
+    private static double populationDiversity(int[][] population, int[] best) {
+        long differing = 0;
+        for (int[] individual : population) {
+            for (int j = 0; j < best.length; j++) {
+                if (individual[j] != best[j]) differing++;
             }
         }
+        return best.length > 0 ? (double) differing / ((long) population.length * best.length) : 0;
+    }
+
+    private static void printBestAllocation(PlacementProblem problem, int[] allocation) {
+        List<Vm> vms = problem.getVms();
+        console.println("\n=== " + ALGORITHM + " Best Allocation ===");
+        console.println("VMID\tMIPS\tAssigned Host");
+        for (int i = 0; i < allocation.length; i++) {
+            console.println(vms.get(i).getId() + "\t" + vms.get(i).getMips() + "\t" + problem.getHosts().get(allocation[i]).getId());
+        }
+    }
+
+    private static double evaluateFitness(int[] allocation, PlacementProblem problem) {
+        Object event = FlightEvents.get().beginEvaluation();
+        double fitness = problem.imbalance(allocation) + problem.trafficCost(allocation);
+        FlightEvents.get().endEvaluation(event, allocation.length, problem.getNumHosts(), fitness);
+        return fitness;
     }
 
-    private static void printCloudletList(List<Cloudlet> cloudletList) {
-        System.out.println("\n=== Cloudlet Results ===");
-        System.out.println("CloudletID\tSTATUS\tVMID\tTime\tStart\tFinish");
-        for (Cloudlet c : cloudletList) {
-            if (c.getStatus() == Cloudlet.SUCCESS) {
-                System.out.printf("%d\t	SUCCESS\t%d\t%.2f\t%.2f\t%.2f\n",
-                        c.getCloudletId(), c.getVmId(), c.getActualCPUTime(), c.getExecStartTime(), c.getFinishTime());
+    private static void printStreamingSummary(AggregatingBroker broker) {
+        console.println("\n=== Streaming Broker Summary ===");
+        console.printf("Cloudlets submitted: %d\n", broker.getSubmitted());
+        console.printf("Cloudlets dropped (VM not available): %d\n", broker.getUnbound());
+        console.printf("Peak cloudlets in flight: %d\n", broker.getPeakInFlight());
+
+        // Spread of the work over the VMs
+        RunningStats perVm = new RunningStats();
+        for (int i = 0; i < broker.getVmCount(); i++) {
+            perVm.add(broker.getVmBusySeconds(i));
+        }
+        console.printf("VM busy time mean / max (s): %.3f / %.3f\n", perVm.getMean(), perVm.getMax());
+    }
+
+    private static void printConsolidationSummary(SimulationResult result) {
+        console.println("\n=== Consolidation Summary ===");
+        console.printf("Re-optimization rounds: %d\n", result.getConsolidationRounds());
+        console.printf("VM migrations: %d\n", result.getMigrations());
+        console.printf("Total migration time (s): %.2f\n", result.getMigrationTime());
+        console.printf("Load imbalance removed (cost units): %.2f\n", result.getBalanceGain());
+    }
+
+    private static void printCloudletList(CloudletTable cloudlets) {
+        console.println("\n=== Cloudlet Results ===");
+        console.println("CloudletID\tSTATUS\tVMID\tTime\tStart\tFinish");
+        for (int row = 0; row < cloudlets.size(); row++) {
+            if (cloudlets.isSuccess(row)) {
+                console.printf("%d\t	SUCCESS\t%d\t%.2f\t%.2f\t%.2f\n",
+                        cloudlets.getId(row), cloudlets.getVmId(row), cloudlets.getCpuTime(row), cloudlets.getStart(row), cloudlets.getFinish(row));
             }
         }
     }
 
-    // Put this method here inside the class (below your existing methods)
-    public static void printDetailedMetrics(
-            List<Cloudlet> cloudlets,
-            List<Vm> vms,
-            List<Host> hosts,
-            double simulationSeconds,
-            long wallClockMillis) {
-
-        int totalCloudlets = cloudlets.size();
-        int successful = (int) cloudlets.stream().filter(c -> c.getStatus() == Cloudlet.SUCCESS).count();
-        int failed = totalCloudlets - successful;
-
-        double avgExecTime = cloudlets.stream()
-                .filter(c -> c.getStatus() == Cloudlet.SUCCESS)
-                .mapToDouble(c -> c.getFinishTime() - c.getExecStartTime())
-                .average()
-                .orElse(0);
-
-        double throughput = (simulationSeconds > 0) ? (successful / simulationSeconds) : 0;
-
-        List<Double> hostLoads = hosts.stream()
-                .map(host -> {
-                    double util = 0;
-                    for (Pe pe : host.getPeList()) {
-                        util += pe.getPeProvisioner().getUtilization();
-                    }
-                    return util / host.getPeList().size();
-                })
-                .collect(Collectors.toList());
-
-        double meanLoad = hostLoads.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-        double variance = hostLoads.stream().mapToDouble(l -> (l - meanLoad) * (l - meanLoad)).average().orElse(0);
-        double stdDevLoad = Math.sqrt(variance);
-
-        long overloadedCount = hostLoads.stream().filter(l -> l > 0.9).count();
-
-        double simulationHours = simulationSeconds / 3600.0;
-        double powerIdle = 0.1;
-        double powerMax = 0.4;
-        double avgUtil = calculateAverageHostUtilization(hosts);
-        double actualPowerPerHost = powerIdle + avgUtil * (powerMax - powerIdle);
-        double actualEnergy = hosts.size() * actualPowerPerHost * simulationHours;
-
-        double energyPerCloudlet = (successful > 0) ? actualEnergy / successful : 0;
-        double energyPerVm = (vms.size() > 0) ? actualEnergy / vms.size() : 0;
-
-        double costPerKWh = 0.12;
-        double costPerHost = actualPowerPerHost * simulationHours * costPerKWh;
-        double costPerVm = (vms.size() > 0) ? (actualEnergy * costPerKWh) / vms.size() : 0;
-
-        System.out.println("\n=== Detailed Simulation Metrics ===");
-        System.out.printf("Average Cloudlet Execution Time (s): %.3f\n", avgExecTime);
-        System.out.printf("Cloudlet Throughput (cloudlets/sec): %.5f\n", throughput);
-        System.out.printf("Cloudlet Failure Count: %d\n", failed);
-        System.out.printf("CPU Load Standard Deviation: %.4f\n", stdDevLoad);
-        System.out.printf("Number of Overloaded Hosts (>90%% utilization): %d\n", overloadedCount);
-        System.out.printf("Energy consumed per successful Cloudlet (kWh): %.6f\n", energyPerCloudlet);
-        System.out.printf("Energy consumed per VM (kWh): %.6f\n", energyPerVm);
-        System.out.printf("Cost per Host (USD): $%.4f\n", costPerHost);
-        System.out.printf("Cost per VM (USD): $%.4f\n", costPerVm);
-        System.out.printf("Simulation Runtime (Wall Clock, ms): %d\n", wallClockMillis);
+    public static void printDetailedMetrics(SimulationResult result) {
+        MetricsAggregator metrics = result.getMetrics();
+        RunningStats exec = metrics.getExecTime();
+        RunningStats wait = metrics.getWaitTime();
+        LatencyHistogram execHistogram = metrics.getExecHistogram();
+        LatencyHistogram waitHistogram = metrics.getWaitHistogram();
+
+        console.println("\n=== Detailed Simulation Metrics ===");
+        console.printf("Average Cloudlet Execution Time (s): %.3f\n", exec.getMean());
+        console.printf("Execution Time p50 / p90 / p99 / max (s): %.3f / %.3f / %.3f / %.3f\n",
+                execHistogram.getQuantile(0.50), execHistogram.getQuantile(0.90), execHistogram.getQuantile(0.99), exec.getMax());
+        console.printf("Average Cloudlet Waiting Time (s): %.3f\n", wait.getMean());
+        console.printf("Waiting Time p50 / p90 / p99 / max (s): %.3f / %.3f / %.3f / %.3f\n",
+                waitHistogram.getQuantile(0.50), waitHistogram.getQuantile(0.90), waitHistogram.getQuantile(0.99), wait.getMax());
+        console.printf("Cloudlet Throughput (cloudlets/sec): %.5f\n", result.getThroughput());
+        console.printf("Cloudlet Failure Count: %d\n", result.getFailedCloudlets());
+        console.printf("CPU Load Standard Deviation: %.4f\n", result.getHostLoadStdDev());
+        console.printf("Number of Overloaded Hosts (>90%% utilization): %d\n", metrics.getOverloadedHosts());
+        console.printf("Energy consumed per successful Cloudlet (kWh): %.6f\n", result.getEnergyPerCloudletKWh());
+        console.printf("Energy consumed per VM (kWh): %.6f\n", result.getEnergyPerVmKWh());
+        console.printf("Cost per Host (USD): $%.4f\n", result.getCostPerHostUsd());
+        console.printf("Cost per VM (USD): $%.4f\n", result.getCostPerVmUsd());
+        console.printf("Simulation Runtime (Wall Clock, ms): %d\n", result.getWallClockMillis());
     }
 
 }
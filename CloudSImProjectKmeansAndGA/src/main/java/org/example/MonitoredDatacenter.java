@@ -0,0 +1,42 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import java.util.List;
+
+/**
+ * Datacenter that feeds a {@link HostUtilizationSampler} after every processing update.
+ */
+public class MonitoredDatacenter extends Datacenter implements SampledDatacenter {
+
+    private final HostUtilizationSampler sampler;
+
+    public MonitoredDatacenter(String name, DatacenterCharacteristics characteristics, VmAllocationPolicy vmAllocationPolicy,
+                               List<Storage> storageList, double schedulingInterval,
+                               HostUtilizationSampler sampler) throws Exception {
+        super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
+        this.sampler = sampler;
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        SimulationProbe.onEvent();
+        super.processEvent(ev);
+    }
+
+    @Override
+    protected void updateCloudletProcessing() {
+        super.updateCloudletProcessing();
+        sampler.sample(CloudSim.clock());
+    }
+
+    @Override
+    public HostUtilizationSampler getSampler() {
+        return sampler;
+    }
+}
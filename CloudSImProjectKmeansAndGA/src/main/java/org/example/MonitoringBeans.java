@@ -0,0 +1,36 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers the run's MXBeans with the platform MBean server under {@code org.example:type=<type>}.
+ *
+ * A new run replaces the beans of the previous one, and the beans stay registered after a run
+ * ends so a scraper still sees its final figures.
+ */
+public final class MonitoringBeans {
+
+    static final String DOMAIN = "org.example";
+
+    private MonitoringBeans() {
+    }
+
+    public static void register(String type, Object bean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(DOMAIN, "type", type);
+            synchronized (MonitoringBeans.class) {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(bean, name);
+            }
+        } catch (JMException e) {
+            // Monitoring is optional: a run must not fail because its bean could not be registered
+            System.err.println("Could not register MBean " + type + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, coalescing handoff of optimizer progress from the search thread to a reader.
+ *
+ * The optimizer publishes an immutable {@link Progress} with a single store and never waits;
+ * a reader polls at its own pace and gets only the latest snapshot, so updates published
+ * between two polls are coalesced rather than queued. The same figures, plus evaluation and
+ * move counters kept in {@link LongAdder}s, are exposed over JMX as {@link OptimizerMXBean}.
+ * Each published iteration is also a {@link FlightEvents} iteration event.
+ */
+public class OptimizerMonitor implements OptimizerMXBean {
+
+    private final AtomicReference<Progress> latest = new AtomicReference<>();
+    private volatile Progress current;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder roundEvaluations = new LongAdder();
+    private final LongAdder proposedMoves = new LongAdder();
+    private final LongAdder acceptedMoves = new LongAdder();
+
+    // Written by the optimizer thread only, read by JMX threads
+    private volatile int round;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile double diversity = Double.NaN;
+    private Object iterationEvent;
+
+    /**
+     * Starts a new optimization round (each batch allocation and re-optimization is one).
+     */
+    public void begin() {
+        roundEvaluations.reset();
+        proposedMoves.reset();
+        acceptedMoves.reset();
+        diversity = Double.NaN;
+        endNanos = 0;
+        startNanos = System.nanoTime();
+        round++;
+        iterationEvent = FlightEvents.get().beginIteration();
+    }
+
+    /**
+     * Ends the current round; the round's rate stays readable until the next {@link #begin()}.
+     */
+    public void end() {
+        endNanos = System.nanoTime();
+        iterationEvent = null;
+    }
+
+    public void evaluated() {
+        evaluations.increment();
+        roundEvaluations.increment();
+    }
+
+    /**
+     * Counts one proposed move of a local search, e.g. a simulated annealing neighbour.
+     */
+    public void moveTried(boolean accepted) {
+        proposedMoves.increment();
+        if (accepted) acceptedMoves.increment();
+    }
+
+    public void publish(int iteration, double bestFitness, double meanFitness) {
+        Progress progress = new Progress(round, iteration, bestFitness, meanFitness, System.nanoTime() - startNanos);
+        current = progress;
+        latest.lazySet(progress);
+
+        FlightEvents events = FlightEvents.get();
+        events.endIteration(iterationEvent, Main.ALGORITHM, round, iteration, bestFitness, meanFitness);
+        iterationEvent = events.beginIteration();
+    }
+
+    public void publish(int iteration, double bestFitness, double meanFitness, double diversity) {
+        this.diversity = diversity;
+        publish(iteration, bestFitness, meanFitness);
+    }
+
+    /**
+     * @return a monitor for an optimizer running next to others: it adds to this monitor's
+     *         evaluation and move counters but publishes no progress and starts no rounds
+     */
+    public OptimizerMonitor counting() {
+        return new CountingMonitor(this);
+    }
+
+    /**
+     * @return the latest progress since the previous poll, or {@code null} if nothing new was published
+     */
+    public Progress poll() {
+        return latest.getAndSet(null);
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return Main.ALGORITHM;
+    }
+
+    @Override
+    public int getRound() {
+        return round;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return round > 0 && endNanos == 0;
+    }
+
+    @Override
+    public int getIteration() {
+        Progress progress = current;
+        return progress == null ? 0 : progress.getIteration();
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public double getEvaluationsPerSecond() {
+        long start = startNanos;
+        long end = endNanos;
+        long elapsed = (end != 0 ? end : System.nanoTime()) - start;
+        return round > 0 && elapsed > 0 ? roundEvaluations.sum() * 1e9 / elapsed : 0;
+    }
+
+    @Override
+    public double getBestFitness() {
+        Progress progress = current;
+        return progress == null ? Double.NaN : progress.getBestFitness();
+    }
+
+    @Override
+    public double getCurrentFitness() {
+        Progress progress = current;
+        return progress == null ? Double.NaN : progress.getMeanFitness();
+    }
+
+    @Override
+    public double getAcceptanceRate() {
+        long proposed = proposedMoves.sum();
+        return proposed > 0 ? (double) acceptedMoves.sum() / proposed : Double.NaN;
+    }
+
+    @Override
+    public double getDiversity() {
+        return diversity;
+    }
+
+    private static final class CountingMonitor extends OptimizerMonitor {
+        private final OptimizerMonitor parent;
+
+        CountingMonitor(OptimizerMonitor parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void evaluated() {
+            parent.evaluated();
+        }
+
+        @Override
+        public void moveTried(boolean accepted) {
+            parent.moveTried(accepted);
+        }
+
+        @Override
+        public void publish(int iteration, double bestFitness, double meanFitness) {
+        }
+
+        @Override
+        public void publish(int iteration, double bestFitness, double meanFitness, double diversity) {
+        }
+    }
+
+    /**
+     * Snapshot of one optimizer iteration.
+     */
+    public static final class Progress {
+        private final int round;
+        private final int iteration;
+        private final double bestFitness;
+        private final double meanFitness;
+        private final long elapsedNanos;
+
+        Progress(int round, int iteration, double bestFitness, double meanFitness, long elapsedNanos) {
+            this.round = round;
+            this.iteration = iteration;
+            this.bestFitness = bestFitness;
+            this.meanFitness = meanFitness;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getRound() { return round; }
+        public int getIteration() { return iteration; }
+        public double getBestFitness() { return bestFitness; }
+        public double getMeanFitness() { return meanFitness; }
+        public long getElapsedNanos() { return elapsedNanos; }
+    }
+}
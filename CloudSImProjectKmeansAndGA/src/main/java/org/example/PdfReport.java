@@ -0,0 +1,102 @@
+package org.example;
+
+import com.itextpdf.html2pdf.HtmlConverter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Converts the {@link HtmlReport} of a result to PDF without building the HTML as one string.
+ *
+ * The calling thread renders the report in chunks into a pipe while a converter thread feeds
+ * the other end to iText, so rendering and parsing overlap. iText still parses the whole
+ * document into a DOM before layout, so memory grows with the rendered table rows, which
+ * {@code maxTableRows} bounds. Interrupting the calling thread cancels both sides.
+ */
+public class PdfReport {
+
+    static final int DEFAULT_MAX_TABLE_ROWS = 2000;
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int ABANDONED = 2;
+
+    private static final ExecutorService CONVERTERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "pdf-converter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param progress receives the share of table rows rendered so far, 0 to 100
+     * @throws InterruptedIOException if the calling thread is interrupted; {@code out} then holds a partial file
+     */
+    public static void write(SimulationResult result, String generatedOn, OutputStream out, int maxTableRows,
+                             IntConsumer progress) throws IOException {
+        PipedInputStream html = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream pipe = new PipedOutputStream(html);
+        AtomicInteger state = new AtomicInteger(PENDING);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Future<?> conversion = CONVERTERS.submit(() -> {
+            if (!state.compareAndSet(PENDING, RUNNING)) return null;
+            // Closing the read end makes a blocked writer fail instead of waiting forever
+            try (InputStream in = html) {
+                HtmlConverter.convertToPdf(in, out);
+            } finally {
+                stopped.countDown();
+            }
+            return null;
+        });
+
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(pipe, StandardCharsets.UTF_8), PIPE_SIZE)) {
+                HtmlReport.write(result, generatedOn, writer, maxTableRows, progress);
+            }
+            conversion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PDF export cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("PDF conversion failed", cause);
+        } catch (IOException e) {
+            // A failed converter closes the pipe, so its error explains the broken write best
+            if (!(e instanceof InterruptedIOException) && conversion.isDone()) {
+                try {
+                    conversion.get();
+                } catch (ExecutionException conversionError) {
+                    e.addSuppressed(conversionError.getCause());
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            throw e;
+        } finally {
+            if (!state.compareAndSet(PENDING, ABANDONED)) {
+                conversion.cancel(true);
+                // iText does not check interrupts; the caller closes out as soon as this returns
+                awaitUninterruptibly(stopped);
+            }
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
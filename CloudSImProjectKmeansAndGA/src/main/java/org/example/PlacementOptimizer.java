@@ -0,0 +1,13 @@
+package org.example;
+
+/**
+ * Metaheuristic that maps the VMs of a {@link PlacementProblem} to host indices.
+ */
+@FunctionalInterface
+public interface PlacementOptimizer {
+
+    /**
+     * @return host index (into {@link PlacementProblem#getHosts()}) for every VM of the problem
+     */
+    int[] optimize(PlacementProblem problem);
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Reads a PlanetLab workload directory: one file per VM holding CPU utilization percentages,
+ * one sample every five minutes (288 samples for a day).
+ *
+ * Files are visited in directory order without listing the directory up front. Each row gets a
+ * cloudlet sized to keep its VM busy for the whole series at the trace's mean utilization.
+ */
+public class PlanetLabTrace implements WorkloadTrace {
+
+    static final int SAMPLES = 288;
+    static final double SAMPLE_INTERVAL = 300.0;
+    static final double VM_MIPS = 450;
+    static final int VM_RAM = 512;
+
+    private final DirectoryStream<Path> files;
+    private final Iterator<Path> iterator;
+
+    public PlanetLabTrace(Path directory) throws IOException {
+        this.files = Files.newDirectoryStream(directory);
+        this.iterator = files.iterator();
+    }
+
+    @Override
+    public WorkloadChunk newChunk(int capacity) {
+        return new WorkloadChunk(capacity, SAMPLES);
+    }
+
+    @Override
+    public boolean nextChunk(WorkloadChunk chunk) throws IOException {
+        chunk.clear();
+        while (!chunk.isFull() && iterator.hasNext()) {
+            Path file = iterator.next();
+            if (!Files.isRegularFile(file) || Files.size(file) == 0) continue;
+
+            int base = chunk.size * SAMPLES;
+            int samples = 0;
+            double sum = 0;
+            try (MappedTraceReader reader = new MappedTraceReader(file, ' ')) {
+                while (samples < SAMPLES && reader.nextLine()) {
+                    double utilization = Math.min(1.0, Math.max(0.0, reader.getDouble(0) / 100.0));
+                    chunk.utilization[base + samples++] = (float) utilization;
+                    sum += utilization;
+                }
+            }
+            if (samples == 0) continue;
+
+            // Short series hold their last sample
+            for (int i = samples; i < SAMPLES; i++) {
+                chunk.utilization[base + i] = chunk.utilization[base + samples - 1];
+            }
+            double busySeconds = samples * SAMPLE_INTERVAL * (sum / samples);
+            chunk.add(VM_MIPS, VM_RAM, Math.max(1, (long) (VM_MIPS * busySeconds)), 0.0);
+        }
+        return chunk.size > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        files.close();
+    }
+}
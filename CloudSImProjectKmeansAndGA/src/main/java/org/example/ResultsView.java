@@ -0,0 +1,124 @@
+package org.example;
+
+import javax.swing.*;
+import javax.swing.table.JTableHeader;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Results browser: a small summary panel above tabbed cloudlet and allocation tables.
+ *
+ * The tables are plain {@link JTable}s over {@link CloudletTableModel} and
+ * {@link AllocationTableModel}, which read the result's primitive columns directly; clicking a
+ * cloudlet column header sorts by it and the filter bar narrows the rows by status and VM.
+ */
+public class ResultsView extends JPanel {
+
+    private static final String[] STATUS_CHOICES = {"All", "Success", "Failed"};
+
+    private final JPanel summaryPanel = new JPanel(new GridLayout(0, 4, 12, 2));
+    private final CloudletTableModel cloudletModel = new CloudletTableModel();
+    private final JTable cloudletTable = new JTable(cloudletModel);
+    private final AllocationTableModel allocationModel = new AllocationTableModel();
+    private final JComboBox<String> statusFilter = new JComboBox<>(STATUS_CHOICES);
+    private final JTextField vmFilter = new JTextField(6);
+    private final JLabel rowCount = new JLabel();
+
+    public ResultsView() {
+        super(new BorderLayout(0, 6));
+        setOpaque(false);
+
+        summaryPanel.setOpaque(false);
+        add(summaryPanel, BorderLayout.NORTH);
+
+        cloudletTable.setFillsViewportHeight(true);
+        JTableHeader header = cloudletTable.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = cloudletTable.convertColumnIndexToModel(header.columnAtPoint(e.getPoint()));
+                if (column < 0) return;
+                cloudletModel.toggleSort(column);
+                refreshHeaders();
+            }
+        });
+
+        JPanel filterBar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterBar.setOpaque(false);
+        filterBar.add(new JLabel("Status:"));
+        filterBar.add(statusFilter);
+        filterBar.add(new JLabel("VM ID:"));
+        filterBar.add(vmFilter);
+        filterBar.add(rowCount);
+        statusFilter.addActionListener(e -> applyFilter());
+        vmFilter.addActionListener(e -> applyFilter());
+
+        JPanel cloudletPanel = new JPanel(new BorderLayout());
+        cloudletPanel.add(filterBar, BorderLayout.NORTH);
+        cloudletPanel.add(new JScrollPane(cloudletTable), BorderLayout.CENTER);
+
+        JTabbedPane tables = new JTabbedPane();
+        tables.addTab("Cloudlets", cloudletPanel);
+        tables.addTab("Allocation", new JScrollPane(new JTable(allocationModel)));
+        add(tables, BorderLayout.CENTER);
+    }
+
+    public void setResult(SimulationResult result) {
+        cloudletModel.setData(result.getCloudlets());
+        allocationModel.setData(result.getAllocation());
+        applyFilter();
+        refreshHeaders();
+
+        MetricsAggregator metrics = result.getMetrics();
+        summaryPanel.removeAll();
+        addSummary("Successful cloudlets", String.valueOf(result.getSuccessfulCloudlets()));
+        addSummary("Failed cloudlets", String.valueOf(result.getFailedCloudlets()));
+        addSummary("Makespan (s)", HtmlReport.format(result.getMakespanSeconds(), 2));
+        addSummary("Throughput (cloudlets/s)", HtmlReport.format(result.getThroughput(), 5));
+        addSummary("Exec time mean / p99 (s)", HtmlReport.format(metrics.getExecTime().getMean(), 3) + " / "
+                + HtmlReport.format(metrics.getExecHistogram().getQuantile(0.99), 3));
+        addSummary("Wait time mean / p99 (s)", HtmlReport.format(metrics.getWaitTime().getMean(), 3) + " / "
+                + HtmlReport.format(metrics.getWaitHistogram().getQuantile(0.99), 3));
+        addSummary("Energy (kWh)", HtmlReport.format(result.getEnergyKWh(), 6));
+        addSummary("Cost (USD)", "$" + HtmlReport.format(result.getCostUsd(), 4));
+        addSummary("Efficiency (%)", HtmlReport.format(result.getEfficiencyPercent(), 2));
+        addSummary("CPU load std dev", HtmlReport.format(result.getHostLoadStdDev(), 4));
+        addSummary("Overloaded hosts", String.valueOf(metrics.getOverloadedHosts()));
+        addSummary("Wall clock (ms)", String.valueOf(result.getWallClockMillis()));
+        summaryPanel.revalidate();
+        summaryPanel.repaint();
+    }
+
+    private void addSummary(String label, String value) {
+        JLabel name = new JLabel(label + ":");
+        name.setForeground(new Color(52, 73, 94));
+        summaryPanel.add(name);
+        JLabel text = new JLabel(value);
+        text.setFont(text.getFont().deriveFont(Font.BOLD));
+        summaryPanel.add(text);
+    }
+
+    // Header values are copied when the columns are created, so the sort marks need a refresh
+    private void refreshHeaders() {
+        for (int i = 0; i < cloudletTable.getColumnCount(); i++) {
+            cloudletTable.getColumnModel().getColumn(i)
+                    .setHeaderValue(cloudletModel.getColumnName(cloudletTable.convertColumnIndexToModel(i)));
+        }
+        cloudletTable.getTableHeader().repaint();
+    }
+
+    private void applyFilter() {
+        int vmId = -1;
+        String vm = vmFilter.getText().trim();
+        if (!vm.isEmpty()) {
+            try {
+                vmId = Integer.parseInt(vm);
+            } catch (NumberFormatException e) {
+                vmFilter.setText("");
+            }
+        }
+        cloudletModel.setFilter(statusFilter.getSelectedIndex(), vmId);
+        rowCount.setText(cloudletModel.getRowCount() + " rows");
+    }
+}
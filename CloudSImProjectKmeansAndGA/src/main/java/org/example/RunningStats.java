@@ -0,0 +1,39 @@
+package org.example;
+
+/**
+ * Count, mean, variance, minimum and maximum of a stream of values in constant memory
+ * (Welford's online algorithm).
+ */
+public class RunningStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getCount() { return count; }
+    public double getMean() { return count > 0 ? mean : 0; }
+    public double getMin() { return count > 0 ? min : 0; }
+    public double getMax() { return count > 0 ? max : 0; }
+
+    /**
+     * @return sample variance, 0 for fewer than two values
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+}
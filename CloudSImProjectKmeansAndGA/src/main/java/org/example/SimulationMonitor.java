@@ -0,0 +1,58 @@
+package org.example;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * {@link SimulationMXBean} of one run, reading the {@link SimulationProbe} counters and the
+ * run's {@link Instrumentation}. Getters are called on JMX threads, so they only read
+ * fields that the simulation thread publishes safely.
+ */
+public class SimulationMonitor implements SimulationMXBean {
+
+    private final Scenario scenario;
+    private final Instrumentation instrumentation;
+
+    public SimulationMonitor(Scenario scenario, Instrumentation instrumentation) {
+        this.scenario = scenario;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public String getScenario() {
+        return scenario.toLine();
+    }
+
+    @Override
+    public String getPhase() {
+        return instrumentation.getCurrentPhase();
+    }
+
+    @Override
+    public double getClock() {
+        // Read without synchronization; a slightly stale clock is fine for monitoring
+        return CloudSim.clock();
+    }
+
+    @Override
+    public long getEventsProcessed() {
+        return SimulationProbe.getEvents();
+    }
+
+    @Override
+    public int getFutureQueueHighWater() {
+        return SimulationProbe.getFutureHighWater();
+    }
+
+    @Override
+    public long getHeapUsedBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public Map<String, Long> getHeapUsedByPhase() {
+        return instrumentation.getHeapUsedByPhase();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulator counters: events handled and the high-water mark of CloudSim's future event queue.
+ * It also ends the simulation early once the run's {@link CancellationToken} is cancelled.
+ *
+ * CloudSim 3.0.3 offers no hook into its event loop, so the project's entities (monitored
+ * datacenters, streaming brokers, the consolidation manager) report each event they handle
+ * here, and the queue depth is read from the protected {@code future} queue at that moment.
+ * Like CloudSim itself the counters are static, one simulation per JVM. They are read live by
+ * {@link SimulationMonitor} over JMX, so the event count is a {@link LongAdder} and the high-water
+ * mark is volatile but only written when it grows.
+ */
+public final class SimulationProbe extends CloudSim {
+
+    private static final LongAdder events = new LongAdder();
+    private static volatile int futureHighWater;
+    private static CancellationToken cancellation;
+    private static boolean terminating;
+
+    private SimulationProbe() {
+    }
+
+    public static void reset(CancellationToken token) {
+        events.reset();
+        futureHighWater = 0;
+        cancellation = token;
+        terminating = false;
+    }
+
+    public static void onEvent() {
+        events.increment();
+        if (future != null && future.size() > futureHighWater) {
+            futureHighWater = future.size();
+        }
+        if (!terminating && cancellation != null && cancellation.isCancelled()) {
+            // The event loop stops once the clock moves past the current instant
+            terminating = true;
+            CloudSim.terminateSimulation(CloudSim.clock() + CloudSim.getMinTimeBetweenEvents());
+        }
+    }
+
+    public static long getEvents() { return events.sum(); }
+    public static int getFutureHighWater() { return futureHighWater; }
+}
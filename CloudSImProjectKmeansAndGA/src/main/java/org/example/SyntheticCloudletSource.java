@@ -0,0 +1,39 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+
+import java.util.Random;
+
+/**
+ * Generates {@code count} cloudlets of the same random size as {@code Main.createCloudlets},
+ * all released at time 0, one at a time.
+ */
+public class SyntheticCloudletSource implements CloudletSource {
+
+    private final int count;
+    private final Random rand;
+    private int next;
+
+    public SyntheticCloudletSource(int count, Random rand) {
+        this.count = count;
+        this.rand = rand;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next < count;
+    }
+
+    @Override
+    public double nextReleaseTime() {
+        return 0.0;
+    }
+
+    @Override
+    public Cloudlet next() {
+        long length = 50000 + rand.nextInt(20000);
+        return new Cloudlet(next++, length, 1, 300, 300,
+                new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only table model over an {@link AllocationTable}.
+ */
+public class AllocationTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"VM ID", "MIPS", "Assigned Host"};
+    private static final Class<?>[] TYPES = {Integer.class, Double.class, Integer.class};
+
+    private AllocationTable data = new AllocationTable();
+
+    public void setData(AllocationTable allocation) {
+        data = allocation;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return data.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return TYPES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0:
+                return data.getVmId(row);
+            case 1:
+                return data.getMips(row);
+            default:
+                return data.getHost(row);
+        }
+    }
+}
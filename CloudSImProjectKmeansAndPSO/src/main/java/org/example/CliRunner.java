@@ -0,0 +1,222 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Headless entry point for scripted runs, writing one machine-readable record per run.
+ *
+ * Usage: {@code CliRunner [--algorithm <name>] [--format jsonl|csv] [--output <file>]
+ * [--scenarios <file>] [key=value ...]}. The {@code key=value} pairs form one {@link Scenario};
+ * with {@code --scenarios} every line of the file is run and the pairs override each line.
+ * Runs happen one after another in this JVM (see {@link ExperimentFarm} for parallel sweeps),
+ * with the human-readable console report switched off, and each result is written to stdout
+ * or the output file as a JSON object per line (default) or as CSV once all runs are done.
+ *
+ * The exit code is {@link #EXIT_OK} if every run placed all VMs, {@link #EXIT_ALLOCATION_FAILED}
+ * if some VM could not be placed, {@link #EXIT_ERROR} if a run failed and {@link #EXIT_USAGE}
+ * for bad arguments.
+ */
+public class CliRunner {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_ERROR = 1;
+    static final int EXIT_ALLOCATION_FAILED = 2;
+    static final int EXIT_USAGE = 64;
+
+    private static final String USAGE = "Usage: CliRunner [--algorithm " + Main.ALGORITHM_ID + "] [--format jsonl|csv]"
+            + " [--output <file>] [--scenarios <file>] [key=value ...]";
+
+    public static void main(String[] args) throws IOException {
+        String format = "jsonl";
+        String output = null;
+        String scenarioFile = null;
+        List<String> pairs = new ArrayList<>();
+        List<Scenario> scenarios = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--algorithm":
+                        String algorithm = value(args, ++i);
+                        if (!algorithm.equalsIgnoreCase(Main.ALGORITHM_ID) && !algorithm.equalsIgnoreCase(Main.ALGORITHM)) {
+                            throw new IllegalArgumentException("This build runs " + Main.ALGORITHM_ID + ", not " + algorithm);
+                        }
+                        break;
+                    case "--format":
+                        format = value(args, ++i);
+                        if (!format.equals("jsonl") && !format.equals("csv")) {
+                            throw new IllegalArgumentException("Unknown format: " + format);
+                        }
+                        break;
+                    case "--output":
+                        output = value(args, ++i);
+                        break;
+                    case "--scenarios":
+                        scenarioFile = value(args, ++i);
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        }
+                        pairs.add(args[i]);
+                }
+            }
+            scenarios = scenarios(scenarioFile, pairs);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+        }
+
+        int exitCode;
+        try (PrintStream out = output == null
+                ? new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8")
+                : new PrintStream(new BufferedOutputStream(new FileOutputStream(output)), false, "UTF-8")) {
+            exitCode = runAll(scenarios, format, out);
+        }
+        System.exit(exitCode);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown key, a malformed value or an unreadable file
+     */
+    static List<Scenario> scenarios(String scenarioFile, List<String> pairs) {
+        String overrides = String.join(" ", pairs);
+        List<Scenario> scenarios = new ArrayList<>();
+        if (scenarioFile == null) {
+            scenarios.add(Scenario.parse(overrides));
+        } else {
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(Paths.get(scenarioFile), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read " + scenarioFile + ": " + e.getMessage());
+            }
+            for (String line : lines) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                scenarios.add(Scenario.parse(trimmed + " " + overrides));
+            }
+        }
+        for (Scenario scenario : scenarios) {
+            scenario.set("console", "false");
+        }
+        return scenarios;
+    }
+
+    static int runAll(List<Scenario> scenarios, String format, PrintStream out) {
+        int exitCode = EXIT_OK;
+        List<Map<String, String>> records = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            Map<String, String> record = new LinkedHashMap<>();
+            try {
+                SimulationResult result = Main.run(scenario);
+                record.put("status", ExperimentWorker.STATUS_OK);
+                record.put("algorithm", Main.ALGORITHM_ID);
+                record.putAll(result.toMap());
+                if (result.getAllocationFailures() > 0 && exitCode == EXIT_OK) {
+                    exitCode = EXIT_ALLOCATION_FAILED;
+                }
+            } catch (Exception e) {
+                record.put("status", ExperimentWorker.STATUS_ERROR);
+                record.put("algorithm", Main.ALGORITHM_ID);
+                record.put("name", scenario.getName());
+                record.put("seed", String.valueOf(scenario.getSeed()));
+                record.put("message", String.valueOf(e));
+                e.printStackTrace();
+                exitCode = EXIT_ERROR;
+            }
+
+            if (format.equals("jsonl")) {
+                out.println(toJson(record));
+                out.flush();
+            } else {
+                records.add(record);
+            }
+        }
+        if (format.equals("csv")) {
+            printCsv(records, out);
+        }
+        return exitCode;
+    }
+
+    static void printCsv(List<Map<String, String>> records, PrintStream out) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (Map<String, String> record : records) {
+            columns.addAll(record.keySet());
+        }
+        out.println(String.join(",", columns));
+        for (Map<String, String> record : records) {
+            StringJoiner row = new StringJoiner(",");
+            for (String column : columns) {
+                String value = record.get(column);
+                row.add(ExperimentFarm.csv(value == null ? "" : value));
+            }
+            out.println(row);
+        }
+    }
+
+    /**
+     * Writes numbers and booleans as JSON literals and everything else as strings.
+     */
+    static String toJson(Map<String, String> record) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, String> entry : record.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            appendString(sb, entry.getKey());
+            sb.append(':');
+            String value = entry.getValue();
+            if (value.equals("true") || value.equals("false") || isJsonNumber(value)) {
+                sb.append(value);
+            } else {
+                appendString(sb, value);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static boolean isJsonNumber(String value) {
+        return value.matches("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
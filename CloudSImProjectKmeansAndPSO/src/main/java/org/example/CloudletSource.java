@@ -0,0 +1,20 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Lazily produced cloudlets in non-decreasing order of release time.
+ *
+ * Cloudlets may come unbound ({@code vmId == -1}); the broker then spreads them over its VMs.
+ */
+public interface CloudletSource {
+
+    boolean hasNext();
+
+    /**
+     * @return simulation time at which the next cloudlet may be submitted
+     */
+    double nextReleaseTime();
+
+    Cloudlet next();
+}
@@ -0,0 +1,168 @@
+package org.example;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model over the primitive columns of a {@link CloudletTable}.
+ *
+ * The model holds only an index permutation into the table. Sorting and filtering rearrange
+ * that {@code int[]}, never the data, and {@code JTable} asks only for the visible cells, so a
+ * million rows cost one index array and the work of painting a screenful.
+ */
+public class CloudletTableModel extends AbstractTableModel {
+
+    public static final int STATUS_ALL = 0;
+    public static final int STATUS_SUCCESS = 1;
+    public static final int STATUS_FAILED = 2;
+
+    private static final String[] COLUMNS = {"CloudletID", "STATUS", "VMID", "Time", "Start", "Finish"};
+    private static final Class<?>[] TYPES = {Integer.class, String.class, Integer.class, Double.class, Double.class, Double.class};
+
+    private CloudletTable data = new CloudletTable(1);
+    private int[] view = new int[0];
+    private int viewSize;
+
+    private int statusFilter = STATUS_ALL;
+    private int vmFilter = -1;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+
+    public void setData(CloudletTable cloudlets) {
+        data = cloudlets == null ? new CloudletTable(1) : cloudlets;
+        view = new int[data.size()];
+        sortColumn = -1;
+        refilter();
+    }
+
+    /**
+     * @param status one of {@link #STATUS_ALL}, {@link #STATUS_SUCCESS}, {@link #STATUS_FAILED}
+     * @param vmId only rows of this VM, or -1 for all
+     */
+    public void setFilter(int status, int vmId) {
+        statusFilter = status;
+        vmFilter = vmId;
+        refilter();
+    }
+
+    private void refilter() {
+        viewSize = 0;
+        for (int row = 0; row < data.size(); row++) {
+            if (accepts(row)) {
+                view[viewSize++] = row;
+            }
+        }
+        if (sortColumn >= 0) {
+            sortView();
+        }
+        fireTableDataChanged();
+    }
+
+    private boolean accepts(int row) {
+        if (vmFilter >= 0 && data.getVmId(row) != vmFilter) return false;
+        switch (statusFilter) {
+            case STATUS_SUCCESS:
+                return data.isSuccess(row);
+            case STATUS_FAILED:
+                return !data.isSuccess(row);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Sorts by the column, toggling the direction if it is already the sort column.
+     */
+    public void toggleSort(int column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        sortView();
+        fireTableDataChanged();
+    }
+
+    // Bottom-up merge sort of the index permutation; stable, so earlier sorts break ties
+    private void sortView() {
+        int[] from = view;
+        int[] to = new int[view.length];
+        for (int width = 1; width < viewSize; width *= 2) {
+            for (int lo = 0; lo < viewSize; lo += 2 * width) {
+                int mid = Math.min(lo + width, viewSize);
+                int hi = Math.min(lo + 2 * width, viewSize);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    to[k++] = compare(from[j], from[i]) < 0 ? from[j++] : from[i++];
+                }
+                while (i < mid) to[k++] = from[i++];
+                while (j < hi) to[k++] = from[j++];
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        view = from;
+    }
+
+    private int compare(int a, int b) {
+        int c;
+        switch (sortColumn) {
+            case 0:
+                c = Integer.compare(data.getId(a), data.getId(b));
+                break;
+            case 1:
+                c = Integer.compare(data.getStatus(a), data.getStatus(b));
+                break;
+            case 2:
+                c = Integer.compare(data.getVmId(a), data.getVmId(b));
+                break;
+            case 3:
+                c = Double.compare(data.getCpuTime(a), data.getCpuTime(b));
+                break;
+            case 4:
+                c = Double.compare(data.getStart(a), data.getStart(b));
+                break;
+            default:
+                c = Double.compare(data.getFinish(a), data.getFinish(b));
+                break;
+        }
+        return ascending ? c : -c;
+    }
+
+    @Override
+    public int getRowCount() {
+        return viewSize;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (column != sortColumn) return COLUMNS[column];
+        return COLUMNS[column] + (ascending ? " (asc)" : " (desc)");
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return TYPES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int column) {
+        int row = view[rowIndex];
+        switch (column) {
+            case 0:
+                return data.getId(row);
+            case 1:
+                return data.getStatusName(row);
+            case 2:
+                return data.getVmId(row);
+            case 3:
+                return data.getCpuTime(row);
+            case 4:
+                return data.getStart(row);
+            default:
+                return data.getFinish(row);
+        }
+    }
+}
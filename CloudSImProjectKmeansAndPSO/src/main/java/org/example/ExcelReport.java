@@ -0,0 +1,132 @@
+package org.example;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes a {@link SimulationResult} to an Excel workbook with numeric cells for all figures.
+ *
+ * The workbook is streamed with POI's {@link SXSSFWorkbook}: only the last {@link #ROW_WINDOW}
+ * rows of a sheet are kept in memory and older rows are flushed to a temporary file, so memory
+ * stays the same for a hundred or a million cloudlets. Allocation, cloudlets and summary get
+ * their own sheets; cloudlets continue on further sheets past Excel's row limit.
+ */
+public class ExcelReport {
+
+    static final int ROW_WINDOW = 100;
+    static final int MAX_SHEET_ROWS = 1 << 20;  // Excel's limit per sheet
+
+    private static final String[] CLOUDLET_COLUMNS = {"CloudletID", "STATUS", "VMID", "Time", "Start", "Finish"};
+
+    public static void write(SimulationResult result, String generatedOn, OutputStream out) throws IOException {
+        write(result, generatedOn, out, percent -> { });
+    }
+
+    /**
+     * @param progress receives the share of rows written so far, 0 to 100
+     */
+    public static void write(SimulationResult result, String generatedOn, OutputStream out, IntConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            CellStyle headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+
+            AllocationTable allocation = result.getAllocation();
+            CloudletTable cloudlets = result.getCloudlets();
+            long totalRows = allocation.size() + (cloudlets == null ? 0 : cloudlets.size());
+            long written = 0;
+            int lastPercent = -1;
+
+            Sheet sheet = workbook.createSheet("Allocation");
+            header(sheet, headerStyle, "VM ID", "MIPS", "Assigned Host");
+            for (int i = 0; i < allocation.size(); i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(allocation.getVmId(i));
+                row.createCell(1).setCellValue(allocation.getMips(i));
+                row.createCell(2).setCellValue(allocation.getHost(i));
+            }
+            written += allocation.size();
+
+            if (cloudlets != null) {
+                int sheetRow = MAX_SHEET_ROWS;
+                int sheetCount = 0;
+                for (int i = 0; i < cloudlets.size(); i++) {
+                    if (sheetRow == MAX_SHEET_ROWS) {
+                        sheetCount++;
+                        sheet = workbook.createSheet(sheetCount == 1 ? "Cloudlets" : "Cloudlets " + sheetCount);
+                        header(sheet, headerStyle, CLOUDLET_COLUMNS);
+                        sheetRow = 1;
+                    }
+                    Row row = sheet.createRow(sheetRow++);
+                    row.createCell(0).setCellValue(cloudlets.getId(i));
+                    row.createCell(1).setCellValue(cloudlets.getStatusName(i));
+                    row.createCell(2).setCellValue(cloudlets.getVmId(i));
+                    row.createCell(3).setCellValue(cloudlets.getCpuTime(i));
+                    row.createCell(4).setCellValue(cloudlets.getStart(i));
+                    row.createCell(5).setCellValue(cloudlets.getFinish(i));
+
+                    written++;
+                    int percent = (int) (written * 100 / totalRows);
+                    if (percent != lastPercent) {
+                        progress.accept(percent);
+                        lastPercent = percent;
+                    }
+                }
+            }
+
+            sheet = workbook.createSheet("Summary");
+            header(sheet, headerStyle, "Measure", "Value");
+            int rowNum = 1;
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue("generatedOn");
+            row.createCell(1).setCellValue(generatedOn);
+            row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue("algorithm");
+            row.createCell(1).setCellValue(result.getAlgorithm());
+            for (Map.Entry<String, String> entry : result.toMap().entrySet()) {
+                row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(entry.getKey());
+                setValue(row, 1, entry.getValue());
+            }
+
+            workbook.write(out);
+            progress.accept(100);
+        } finally {
+            // Deletes the temporary sheet files
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void header(Sheet sheet, CellStyle style, String... columns) {
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < columns.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(columns[i]);
+            cell.setCellStyle(style);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+
+    // Summary values are formatted with Locale.ROOT, so numbers parse back exactly
+    static void setValue(Row row, int column, String value) {
+        Cell cell = row.createCell(column);
+        try {
+            cell.setCellValue(Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            cell.setCellValue(value);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs a sweep of scenarios in parallel on a bounded pool of warm worker JVMs.
+ *
+ * CloudSim 3.0.3 keeps its simulation state in statics, so concurrency has to come from
+ * separate processes. Each pooled {@link ExperimentWorker} receives scenario lines on stdin
+ * and answers with result lines on stdout; workers are reused across scenarios and restarted
+ * only if they die. A worker that takes longer than the per-scenario timeout is killed and
+ * replaced, and its scenario is reported with {@code status=error}.
+ *
+ * Usage: {@code ExperimentFarm <scenario-file> [workers] [timeoutSeconds]}. The scenario file
+ * holds one {@link Scenario} line per run ('#' starts a comment); results are printed as CSV.
+ * Without a timeout (or with 0) a scenario may run for as long as it needs.
+ */
+public class ExperimentFarm implements Closeable {
+
+    private final WorkerProcess[] pool;
+    private final List<String> jvmArgs;
+    private final long timeoutMillis;
+
+    public ExperimentFarm(int poolSize, List<String> jvmArgs) {
+        this(poolSize, jvmArgs, 0);
+    }
+
+    /**
+     * @param timeoutMillis longest a worker may take for one scenario, 0 for no limit
+     */
+    public ExperimentFarm(int poolSize, List<String> jvmArgs, long timeoutMillis) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        this.pool = new WorkerProcess[poolSize];
+        this.jvmArgs = new ArrayList<>(jvmArgs);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ExperimentFarm <scenario-file> [workers] [timeoutSeconds]");
+            System.exit(64);
+        }
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = args.length > 2 ? TimeUnit.SECONDS.toMillis(Long.parseLong(args[2])) : 0;
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            scenarios.add(Scenario.parse(trimmed));
+        }
+
+        long start = System.nanoTime();
+        List<Result> results;
+        try (ExperimentFarm farm = new ExperimentFarm(workers, Collections.<String>emptyList(), timeoutMillis)) {
+            results = farm.runAll(scenarios);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        printCsv(results, System.out);
+        System.err.printf("Ran %d scenarios on %d workers in %d ms%n", results.size(), workers, elapsedMillis);
+    }
+
+    /**
+     * Runs all scenarios and returns their results in the order of the input list.
+     */
+    public List<Result> runAll(List<Scenario> scenarios) throws InterruptedException {
+        Result[] results = new Result[scenarios.size()];
+        BlockingQueue<Integer> pending = new LinkedBlockingQueue<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            pending.add(i);
+        }
+
+        int threads = Math.min(pool.length, scenarios.size());
+        if (threads == 0) return new ArrayList<>();
+
+        ExecutorService dispatchers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            dispatchers.execute(() -> {
+                Integer index;
+                while ((index = pending.poll()) != null) {
+                    results[index] = dispatch(slot, scenarios.get(index));
+                }
+            });
+        }
+        dispatchers.shutdown();
+        dispatchers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        return Arrays.asList(results);
+    }
+
+    private Result dispatch(int slot, Scenario scenario) {
+        long start = System.nanoTime();
+        try {
+            if (pool[slot] == null || !pool[slot].isAlive()) {
+                pool[slot] = new WorkerProcess(jvmArgs);
+            }
+            Map<String, String> reply = pool[slot].submit(scenario.toLine(), timeoutMillis);
+            return new Result(scenario, reply, System.nanoTime() - start);
+        } catch (IOException | TimeoutException | RuntimeException e) {
+            // A crashed, stuck or garbled worker only costs its current scenario; the slot is restarted on next use
+            if (pool[slot] != null) pool[slot].destroy();
+            pool[slot] = null;
+            Map<String, String> reply = new LinkedHashMap<>();
+            reply.put("status", ExperimentWorker.STATUS_ERROR);
+            reply.put("message", String.valueOf(e));
+            return new Result(scenario, reply, System.nanoTime() - start);
+        }
+    }
+
+    static void printCsv(List<Result> results, PrintStream out) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("scenario");
+        for (Result result : results) {
+            columns.addAll(result.getValues().keySet());
+        }
+        out.println(String.join(",", columns));
+        for (Result result : results) {
+            StringJoiner row = new StringJoiner(",");
+            for (String column : columns) {
+                String value = column.equals("scenario") ? result.getScenario().getName() : result.getValues().get(column);
+                row.add(csv(value == null ? "" : value));
+            }
+            out.println(row);
+        }
+    }
+
+    static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < pool.length; i++) {
+            if (pool[i] != null) {
+                pool[i].shutdown();
+                pool[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Outcome of one scenario; {@link #getValues()} holds the worker's key=value reply.
+     */
+    public static class Result {
+        private final Scenario scenario;
+        private final Map<String, String> values;
+        private final long elapsedNanos;
+
+        Result(Scenario scenario, Map<String, String> values, long elapsedNanos) {
+            this.scenario = scenario;
+            this.values = values;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public boolean isOk() {
+            return ExperimentWorker.STATUS_OK.equals(values.get("status"));
+        }
+
+        public Scenario getScenario() { return scenario; }
+        public Map<String, String> getValues() { return values; }
+        public long getElapsedNanos() { return elapsedNanos; }
+    }
+
+    private static class WorkerProcess {
+        private static final String END_OF_STREAM = "";
+
+        private final Process process;
+        private final BufferedWriter stdin;
+        // Filled by a reader thread, so that waiting for a reply can time out
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+
+        WorkerProcess(List<String> jvmArgs) throws IOException {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ExperimentWorker.class.getName());
+
+            process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            BufferedReader stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            Thread reader = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = stdout.readLine()) != null) {
+                        replies.add(line);
+                    }
+                } catch (IOException ignored) {
+                    // Worker destroyed; treated like end of stream
+                } finally {
+                    replies.add(END_OF_STREAM);
+                }
+            }, "farm-worker-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        /**
+         * @param timeoutMillis longest to wait for the reply, 0 for no limit
+         * @throws TimeoutException if the worker did not answer in time; it must then be destroyed
+         */
+        Map<String, String> submit(String scenarioLine, long timeoutMillis) throws IOException, TimeoutException {
+            stdin.write(scenarioLine);
+            stdin.newLine();
+            stdin.flush();
+            String reply;
+            try {
+                reply = timeoutMillis > 0 ? replies.poll(timeoutMillis, TimeUnit.MILLISECONDS) : replies.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the worker", e);
+            }
+            if (reply == null) {
+                throw new TimeoutException("Scenario did not finish within " + timeoutMillis + " ms");
+            }
+            if (reply.equals(END_OF_STREAM)) {
+                throw new IOException("Worker exited with code " + waitForExit());
+            }
+            return Scenario.parseRecord(reply);
+        }
+
+        void shutdown() {
+            try {
+                stdin.close();
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (IOException e) {
+                process.destroy();
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void destroy() {
+            // A stuck simulation may not react to a polite stop
+            process.destroyForcibly();
+        }
+
+        private int waitForExit() {
+            try {
+                return process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.example;
+
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Two-level placement for scenarios with several datacenters.
+ *
+ * Level one spreads the VMs over the datacenters by aggregate capacity and price: VMs are
+ * taken largest first, and each goes to the datacenter with the lowest
+ * {@code costPerSecond x utilization} after adding it, among those it still fits into by MIPS
+ * and RAM. Cheaper datacenters therefore fill up further before a pricier one is used. Level
+ * two runs the project's optimizer on every datacenter's batch concurrently, so the time to
+ * place a federation follows its largest datacenter instead of the whole fleet.
+ *
+ * Datacenters are written in the {@code datacenters} scenario key as
+ * {@code <hosts>[@<costPerSecond>]} entries separated by commas, e.g. {@code 40@3.0,20@2.5}.
+ */
+public final class FederatedPlacement {
+
+    private FederatedPlacement() {
+    }
+
+    /**
+     * @param spec          the {@code datacenters} scenario value; empty for one datacenter
+     * @param defaultHosts  hosts of the single datacenter used when {@code spec} is empty
+     * @param defaultCost   cost per second of a datacenter that does not name one
+     */
+    public static List<Site> parseSites(String spec, int defaultHosts, double defaultCost) {
+        List<Site> sites = new ArrayList<>();
+        if (spec.trim().isEmpty()) {
+            sites.add(new Site(defaultHosts, defaultCost));
+            return sites;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("@");
+            int hosts = Integer.parseInt(parts[0].trim());
+            double cost = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : defaultCost;
+            if (hosts < 1 || cost < 0 || parts.length > 2) {
+                throw new IllegalArgumentException("Expected <hosts>[@<costPerSecond>] but got: " + entry);
+            }
+            sites.add(new Site(hosts, cost));
+        }
+        return sites;
+    }
+
+    /**
+     * @return index into {@code datacenters} for every VM, in the order of {@code vms}
+     */
+    public static int[] assignDatacenters(List<? extends Vm> vms, List<DatacenterCharacteristics> datacenters) {
+        int sites = datacenters.size();
+        double[] mipsCapacity = new double[sites];
+        double[] ramCapacity = new double[sites];
+        double[] price = new double[sites];
+        for (int d = 0; d < sites; d++) {
+            DatacenterCharacteristics characteristics = datacenters.get(d);
+            for (Host host : characteristics.<Host>getHostList()) {
+                mipsCapacity[d] += host.getTotalMips();
+                ramCapacity[d] += host.getRam();
+            }
+            price[d] = characteristics.getCostPerSecond();
+        }
+
+        Integer[] order = new Integer[vms.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(demand(vms.get(b)), demand(vms.get(a))));
+
+        int[] assignment = new int[vms.size()];
+        double[] mipsUsed = new double[sites];
+        double[] ramUsed = new double[sites];
+        for (int i : order) {
+            Vm vm = vms.get(i);
+            int best = -1;
+            boolean bestFits = false;
+            double bestScore = Double.MAX_VALUE;
+            for (int d = 0; d < sites; d++) {
+                double fill = Math.max((mipsUsed[d] + demand(vm)) / mipsCapacity[d], (ramUsed[d] + vm.getRam()) / ramCapacity[d]);
+                boolean fits = fill <= 1.0;
+                // Without a datacenter that fits, the least overfilled one takes the VM
+                double score = fits ? price[d] * fill : fill;
+                if ((fits && !bestFits) || (fits == bestFits && score < bestScore)) {
+                    best = d;
+                    bestFits = fits;
+                    bestScore = score;
+                }
+            }
+            assignment[i] = best;
+            mipsUsed[best] += demand(vm);
+            ramUsed[best] += vm.getRam();
+        }
+        return assignment;
+    }
+
+    private static double demand(Vm vm) {
+        return vm.getMips() * vm.getNumberOfPes();
+    }
+
+    /**
+     * Optimizes the datacenters' problems concurrently, largest first, on up to {@code threads} threads.
+     *
+     * @param optimizers one per problem; each must only touch its own state, since they run in parallel
+     * @return host index per VM for every problem, in the order of {@code problems}
+     */
+    public static int[][] optimizeAll(List<PlacementProblem> problems, List<PlacementOptimizer> optimizers, int threads)
+            throws InterruptedException {
+        int[][] allocations = new int[problems.size()][];
+        Integer[] order = new Integer[problems.size()];
+        for (int d = 0; d < order.length; d++) order[d] = d;
+        Arrays.sort(order, (a, b) -> Long.compare(size(problems.get(b)), size(problems.get(a))));
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, problems.size())), runnable -> {
+            Thread thread = new Thread(runnable, "datacenter-optimizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<Integer, Future<int[]>> futures = new LinkedHashMap<>();
+            for (int d : order) {
+                PlacementProblem problem = problems.get(d);
+                PlacementOptimizer optimizer = optimizers.get(d);
+                futures.put(d, pool.submit(() -> optimizer.optimize(problem)));
+            }
+            for (Map.Entry<Integer, Future<int[]>> future : futures.entrySet()) {
+                try {
+                    allocations[future.getKey()] = future.getValue().get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Optimizer failed for datacenter " + future.getKey(), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return allocations;
+    }
+
+    // Search cost grows with both dimensions of the problem
+    static long size(PlacementProblem problem) {
+        return (long) problem.getNumVms() * problem.getNumHosts();
+    }
+
+    /**
+     * One datacenter of a federated scenario.
+     */
+    public static final class Site {
+        private final int hosts;
+        private final double costPerSecond;
+
+        Site(int hosts, double costPerSecond) {
+            this.hosts = hosts;
+            this.costPerSecond = costPerSecond;
+        }
+
+        public int getHosts() { return hosts; }
+        public double getCostPerSecond() { return costPerSecond; }
+    }
+}
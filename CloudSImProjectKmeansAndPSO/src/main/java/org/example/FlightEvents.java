@@ -0,0 +1,89 @@
+package org.example;
+
+/**
+ * Profiling hooks for JDK Flight Recorder: optimizer iterations, sampled fitness evaluations,
+ * K-means iterations, VM allocations, instrumentation phases and the CloudSim run.
+ *
+ * The project targets Java 8, so this class only defines the hooks and does nothing. The
+ * {@code jfr} Maven profile (active on JDK 11 and newer) compiles {@code src/main/java11},
+ * whose {@code JfrFlightEvents} emits real events; it is loaded reflectively when present
+ * and usable. Each {@code begin} returns a handle for the matching {@code end}, or
+ * {@code null} if the event is not recorded, so a run without a recording pays one
+ * virtual call per hook.
+ */
+public class FlightEvents {
+
+    private static final String JFR_IMPLEMENTATION = "org.example.JfrFlightEvents";
+    private static final FlightEvents INSTANCE = load();
+
+    protected FlightEvents() {
+    }
+
+    public static FlightEvents get() {
+        return INSTANCE;
+    }
+
+    private static FlightEvents load() {
+        try {
+            return (FlightEvents) Class.forName(JFR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without the jfr profile, or running on a JDK without jdk.jfr
+            return new FlightEvents();
+        }
+    }
+
+    /**
+     * @return true if events are emitted to Flight Recorder (whether or not a recording is running)
+     */
+    public boolean isAvailable() {
+        return false;
+    }
+
+    public Object beginIteration() {
+        return null;
+    }
+
+    public void endIteration(Object event, String algorithm, int round, int iteration, double bestFitness, double meanFitness) {
+    }
+
+    /**
+     * Fitness evaluations are sampled; most calls return {@code null} even while recording.
+     */
+    public Object beginEvaluation() {
+        return null;
+    }
+
+    public void endEvaluation(Object event, int vms, int hosts, double fitness) {
+    }
+
+    public Object beginKMeansIteration() {
+        return null;
+    }
+
+    public void endKMeansIteration(Object event, int iteration, int vms, int clusters, boolean changed) {
+    }
+
+    public Object beginAllocation() {
+        return null;
+    }
+
+    /**
+     * @param hostId host the VM was placed on, or -1 if it could not be placed
+     */
+    public void endAllocation(Object event, int vmId, int hostId, boolean fallback, boolean optimized) {
+    }
+
+    public Object beginPhase() {
+        return null;
+    }
+
+    public void endPhase(Object event, String phase) {
+    }
+
+    public Object beginSimulation() {
+        return null;
+    }
+
+    public void endSimulation(Object event, String scenario, double clock, long events, boolean cancelled) {
+    }
+}
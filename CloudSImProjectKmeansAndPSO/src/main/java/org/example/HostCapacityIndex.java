@@ -0,0 +1,184 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Residual CPU and RAM of a fleet of hosts, indexed for "which host should take this VM?" queries.
+ *
+ * A segment tree over the hosts, stored in flat arrays (node {@code n} has children {@code 2n}
+ * and {@code 2n + 1}, host {@code h} is leaf {@code size + h}). Every node keeps the lowest
+ * dominant share below it (the larger of CPU and RAM utilization) with its host, the largest
+ * free MIPS and free RAM, and the smallest free MIPS. Changing a host's load is O(log H).
+ *
+ * {@link #leastLoaded(double, double)} and {@link #bestFit(double, double)} descend the tree
+ * best child first and skip every subtree whose largest free MIPS or RAM is too small, or which
+ * cannot beat the answer found so far. When the best host fits, which is the common case, a
+ * query is one root-to-leaf path, O(log H); fleets where most hosts are full for one resource
+ * but not the other may need more paths.
+ *
+ * Balancing placement (greedy seeding, guided optimizer moves, the allocation-policy fallback)
+ * asks for the least-loaded host. Repairing a placement that overcommits a host asks for the
+ * tightest fit instead, which keeps the large free blocks for the VMs still to be repaired.
+ */
+public final class HostCapacityIndex {
+
+    private final int hosts;
+    private final int size;
+    private final double[] capacityMips;
+    private final double[] capacityRam;
+    private final double[] usedMips;
+    private final double[] usedRam;
+
+    private final double[] minShare;
+    private final int[] minHost;
+    private final double[] maxFreeMips;
+    private final double[] maxFreeRam;
+    private final double[] minFreeMips;
+
+    /**
+     * @param usedMips MIPS already in use on each host; copied
+     * @param usedRam  RAM already in use on each host; copied
+     */
+    public HostCapacityIndex(double[] capacityMips, double[] capacityRam, double[] usedMips, double[] usedRam) {
+        if (capacityRam.length != capacityMips.length || usedMips.length != capacityMips.length || usedRam.length != capacityMips.length) {
+            throw new IllegalArgumentException("Expected capacities and loads for each of the " + capacityMips.length + " hosts");
+        }
+        this.hosts = capacityMips.length;
+        int leaves = 1;
+        while (leaves < hosts) leaves <<= 1;
+        this.size = leaves;
+        this.capacityMips = capacityMips.clone();
+        this.capacityRam = capacityRam.clone();
+        this.usedMips = usedMips.clone();
+        this.usedRam = usedRam.clone();
+
+        this.minShare = new double[2 * size];
+        this.minHost = new int[2 * size];
+        this.maxFreeMips = new double[2 * size];
+        this.maxFreeRam = new double[2 * size];
+        this.minFreeMips = new double[2 * size];
+        // Padding leaves never fit and never win
+        Arrays.fill(minShare, Double.POSITIVE_INFINITY);
+        Arrays.fill(minHost, -1);
+        Arrays.fill(maxFreeMips, Double.NEGATIVE_INFINITY);
+        Arrays.fill(maxFreeRam, Double.NEGATIVE_INFINITY);
+        Arrays.fill(minFreeMips, Double.POSITIVE_INFINITY);
+        for (int h = 0; h < hosts; h++) {
+            setLeaf(h);
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            pull(node);
+        }
+    }
+
+    /**
+     * @return an index over hosts of the given capacities with nothing placed yet
+     */
+    public static HostCapacityIndex empty(double[] capacityMips, double[] capacityRam) {
+        return new HostCapacityIndex(capacityMips, capacityRam, new double[capacityMips.length], new double[capacityMips.length]);
+    }
+
+    /**
+     * Adds load to a host (negative to remove it), in O(log H).
+     */
+    public void add(int host, double mips, double ram) {
+        usedMips[host] += mips;
+        usedRam[host] += ram;
+        setLeaf(host);
+        for (int node = (size + host) >> 1; node >= 1; node >>= 1) {
+            pull(node);
+        }
+    }
+
+    public void move(int from, int to, double mips, double ram) {
+        add(from, -mips, -ram);
+        add(to, mips, ram);
+    }
+
+    /**
+     * @return the host with the lowest dominant share, regardless of fit, in O(1)
+     */
+    public int leastLoaded() {
+        return minHost[1];
+    }
+
+    /**
+     * @return the host with the lowest dominant share among those with {@code mips} and
+     *         {@code ram} free, or -1 if none has
+     */
+    public int leastLoaded(double mips, double ram) {
+        return leastLoaded(1, mips, ram, -1);
+    }
+
+    private int leastLoaded(int node, double mips, double ram, int best) {
+        if (maxFreeMips[node] < mips || maxFreeRam[node] < ram) return best;
+        if (best >= 0 && minShare[node] >= share(best)) return best;
+        if (node >= size) return node - size;
+        int first = minShare[2 * node] <= minShare[2 * node + 1] ? 2 * node : 2 * node + 1;
+        best = leastLoaded(first, mips, ram, best);
+        return leastLoaded(first ^ 1, mips, ram, best);
+    }
+
+    /**
+     * @return the host with the fewest MIPS left after taking {@code mips} among those with
+     *         {@code mips} and {@code ram} free, or -1 if none has
+     */
+    public int bestFit(double mips, double ram) {
+        return bestFit(1, mips, ram, -1);
+    }
+
+    private int bestFit(int node, double mips, double ram, int best) {
+        if (maxFreeMips[node] < mips || maxFreeRam[node] < ram) return best;
+        // Any host below that fits has at least this much free
+        if (best >= 0 && Math.max(mips, minFreeMips[node]) >= freeMips(best)) return best;
+        if (node >= size) return node - size;
+        int first = minFreeMips[2 * node] <= minFreeMips[2 * node + 1] ? 2 * node : 2 * node + 1;
+        best = bestFit(first, mips, ram, best);
+        return bestFit(first ^ 1, mips, ram, best);
+    }
+
+    /**
+     * @return the larger of the host's CPU and RAM utilization
+     */
+    public double share(int host) {
+        return Math.max(ratio(usedMips[host], capacityMips[host]), ratio(usedRam[host], capacityRam[host]));
+    }
+
+    public double freeMips(int host) {
+        return capacityMips[host] - usedMips[host];
+    }
+
+    public double freeRam(int host) {
+        return capacityRam[host] - usedRam[host];
+    }
+
+    public int getHostCount() {
+        return hosts;
+    }
+
+    private static double ratio(double used, double capacity) {
+        if (capacity > 0) return used / capacity;
+        return used > 0 ? Double.POSITIVE_INFINITY : 0;
+    }
+
+    private void setLeaf(int host) {
+        int leaf = size + host;
+        minShare[leaf] = share(host);
+        minHost[leaf] = host;
+        maxFreeMips[leaf] = freeMips(host);
+        maxFreeRam[leaf] = freeRam(host);
+        minFreeMips[leaf] = freeMips(host);
+    }
+
+    private void pull(int node) {
+        int left = 2 * node;
+        int right = left + 1;
+        // Ties go to the lower host index
+        int min = minShare[right] < minShare[left] ? right : left;
+        minShare[node] = minShare[min];
+        minHost[node] = minHost[min];
+        maxFreeMips[node] = Math.max(maxFreeMips[left], maxFreeMips[right]);
+        maxFreeRam[node] = Math.max(maxFreeRam[left], maxFreeRam[right]);
+        minFreeMips[node] = Math.min(minFreeMips[left], minFreeMips[right]);
+    }
+}
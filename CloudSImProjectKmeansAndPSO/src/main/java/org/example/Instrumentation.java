@@ -0,0 +1,139 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wall-clock phase timers and counters of one run.
+ *
+ * Phases are measured with {@link System#nanoTime()} and accumulate if the same phase runs
+ * several times (e.g. one optimization per batch). Phases may nest: optimization and
+ * allocation happen inside the simulation phase. {@link #toJson()} writes everything as a
+ * single JSON object so runs at different scales can be compared by a script.
+ *
+ * The heap in use when a phase ends and the phase currently running are also kept in
+ * thread-safe fields, since {@link SimulationMonitor} reads them over JMX during the run.
+ * Every timed phase is also reported as a {@link FlightEvents} phase event.
+ */
+public class Instrumentation {
+
+    private final Map<String, long[]> phases = new LinkedHashMap<>();  // name -> {nanos, calls}
+    private final Map<String, Number> counters = new LinkedHashMap<>();
+    private final Map<String, Long> heapUsed = new ConcurrentHashMap<>();
+    private volatile String currentPhase = "";
+
+    public Phase start(String name) {
+        Phase phase = new Phase(name, currentPhase, System.nanoTime());
+        currentPhase = name;
+        return phase;
+    }
+
+    public void addPhase(String name, long nanos, long calls) {
+        long[] phase = phases.computeIfAbsent(name, k -> new long[2]);
+        phase[0] += nanos;
+        phase[1] += calls;
+    }
+
+    public void setCounter(String name, Number value) {
+        counters.put(name, value);
+    }
+
+    public long getNanos(String name) {
+        long[] phase = phases.get(name);
+        return phase == null ? 0 : phase[0];
+    }
+
+    public String getCurrentPhase() {
+        return currentPhase;
+    }
+
+    public Map<String, Long> getHeapUsedByPhase() {
+        return Collections.unmodifiableMap(new TreeMap<>(heapUsed));
+    }
+
+    /**
+     * @return phases as {@code phase.<name>.ms} and counters under their own name
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> phase : phases.entrySet()) {
+            map.put("phase." + phase.getKey() + ".ms", formatMillis(phase.getValue()[0]));
+        }
+        for (Map.Entry<String, Number> counter : counters.entrySet()) {
+            map.put(counter.getKey(), format(counter.getValue()));
+        }
+        return map;
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{\"phases\":{");
+        boolean first = true;
+        for (Map.Entry<String, long[]> phase : phases.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append('"').append(phase.getKey()).append("\":{\"ms\":").append(formatMillis(phase.getValue()[0]))
+                    .append(",\"calls\":").append(phase.getValue()[1]);
+            Long heap = heapUsed.get(phase.getKey());
+            if (heap != null) {
+                sb.append(",\"heapMb\":").append(format(heap / (1024.0 * 1024.0)));
+            }
+            sb.append('}');
+        }
+        sb.append("},\"counters\":{");
+        first = true;
+        for (Map.Entry<String, Number> counter : counters.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append('"').append(counter.getKey()).append("\":").append(format(counter.getValue()));
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String format(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            return String.format(Locale.ROOT, "%.3f", value.doubleValue());
+        }
+        return value.toString();
+    }
+
+    /**
+     * A running phase; {@link #stop()} or {@code close()} adds its time to the instrumentation.
+     */
+    public final class Phase implements AutoCloseable {
+        private final String name;
+        private final String enclosing;
+        private final long startNanos;
+        private final Object event;
+        private boolean stopped;
+
+        private Phase(String name, String enclosing, long startNanos) {
+            this.name = name;
+            this.enclosing = enclosing;
+            this.startNanos = startNanos;
+            this.event = FlightEvents.get().beginPhase();
+        }
+
+        public void stop() {
+            if (stopped) return;
+            stopped = true;
+            addPhase(name, System.nanoTime() - startNanos, 1);
+            heapUsed.merge(name, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), Math::max);
+            currentPhase = enclosing;
+            FlightEvents.get().endPhase(event, name);
+        }
+
+        @Override
+        public void close() {
+            stop();
+        }
+    }
+}
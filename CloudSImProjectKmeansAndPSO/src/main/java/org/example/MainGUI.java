@@ -1,30 +1,39 @@
 
 package org.example;
 
-import com.itextpdf.html2pdf.HtmlConverter;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainGUI extends JFrame {
+    private static final String RUN_ARCHIVE_DIR = "runs";  // every GUI run is archived here for RunCompare
+    private static final int CHART_FRAMES_PER_SECOND = 10;
+    // Tables above this size are summarized in the view and the PDF (top-N rows plus aggregates)
+    private static final int REPORT_MAX_TABLE_ROWS = Integer.getInteger("report.maxTableRows", PdfReport.DEFAULT_MAX_TABLE_ROWS);
+
     private JPanel mainPanel;
     private JTextPane outputArea;
-    private JButton runButton, exportPdfButton, exportExcelButton;
-    private List<String> simulationOutput;
+    private ResultsView resultsView;
+    private JTabbedPane tabs;
+    private final OptimizerMonitor optimizerMonitor = new OptimizerMonitor();
+    private ConvergenceChart convergenceChart;
+    private CancellationToken runCancellation;
+    private JButton runButton, stopButton, exportPdfButton, exportExcelButton;
+    private JProgressBar progressBar;
+    private SwingWorker<Void, Integer> pdfExport;
+    private SimulationResult result;
     private final String currentDateTime = ZonedDateTime.now()
             .format(DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy, hh:mm a XXX"));
 
@@ -35,8 +44,6 @@ public class MainGUI extends JFrame {
         setLocationRelativeTo(null);
         setResizable(true);
 
-        simulationOutput = new ArrayList<>();
-
         mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(new Color(249, 249, 249));
         mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -165,18 +172,53 @@ public class MainGUI extends JFrame {
         });
         runButton.addActionListener(e -> runSimulation());
 
+        stopButton = new JButton("Stop") {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                GradientPaint gp = new GradientPaint(0, 0, new Color(231, 76, 60), 0, getHeight(), new Color(192, 57, 43));
+                g2d.setPaint(gp);
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
+                super.paintComponent(g);
+            }
+        };
+        stopButton.setForeground(Color.WHITE);
+        stopButton.setFont(new Font("Arial", Font.BOLD, 14));
+        stopButton.setFocusPainted(false);
+        stopButton.setBorderPainted(false);
+        stopButton.setContentAreaFilled(false);
+        stopButton.setOpaque(false);
+        stopButton.setBorder(new EmptyBorder(10, 20, 10, 20));
+        stopButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> stopSimulation());
+
         // Layout
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.setOpaque(false);
         buttonPanel.add(runButton);
+        buttonPanel.add(stopButton);
         buttonPanel.add(exportPdfButton);
         buttonPanel.add(exportExcelButton);
 
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        buttonPanel.add(progressBar);
+
         JPanel contentPanel = new JPanel(new BorderLayout());
         contentPanel.setOpaque(true);
         contentPanel.setBackground(Color.WHITE);
         contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        contentPanel.add(scrollPane, BorderLayout.CENTER);
+        // Tables are browsed in the results view; the report tab holds the summarized HTML
+        resultsView = new ResultsView();
+        convergenceChart = new ConvergenceChart(optimizerMonitor, CHART_FRAMES_PER_SECOND);
+        tabs = new JTabbedPane();
+        tabs.addTab("Convergence", convergenceChart);
+        tabs.addTab("Results", resultsView);
+        tabs.addTab("Report", scrollPane);
+        contentPanel.add(tabs, BorderLayout.CENTER);
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
 
         mainPanel.add(titleBar, BorderLayout.NORTH);
@@ -186,92 +228,37 @@ public class MainGUI extends JFrame {
 
     private void runSimulation() {
         runButton.setEnabled(false);
+        stopButton.setEnabled(true);
+        CancellationToken cancellation = new CancellationToken();
+        runCancellation = cancellation;
         outputArea.setText("<html><body><p style='color: #333;'>Running simulation...</p></body></html>");
-        simulationOutput.clear();
+        tabs.setSelectedComponent(convergenceChart);
+        convergenceChart.start();
 
         Thread simThread = new Thread(() -> {
             try {
-                PrintStream printStream = new PrintStream(new OutputStream() {
-                    private final StringBuilder buffer = new StringBuilder();
-
-                    @Override
-                    public void write(int b) {
-                        char c = (char) b;
-                        if (c == '\r') return;
-                        buffer.append(c);
-                        if (c == '\n') {
-                            final String line = buffer.toString().trim();
-                            buffer.setLength(0);
-                            if (!line.isEmpty()) simulationOutput.add(line);
-                        }
-                    }
-
-                    @Override
-                    public void write(byte[] b, int off, int len) {
-                        String text = new String(b, off, len, StandardCharsets.UTF_8);
-                        for (char c : text.toCharArray()) write(c);
-                    }
-                }, true);
-
-                PrintStream oldOut = System.out;
-                PrintStream oldErr = System.err;
-                System.setOut(printStream);
-                System.setErr(printStream);
-
-                Main.main(new String[]{});
-
-                System.setOut(oldOut);
-                System.setErr(oldErr);
-
-                // Save raw output for debugging
-                try (FileWriter writer = new FileWriter("raw_output.txt")) {
-                    writer.write(String.join("\n", simulationOutput));
-                } catch (IOException e) {
-                    System.err.println("Error saving raw output: " + e.getMessage());
-                }
+                Scenario scenario = Scenario.defaults();
+                scenario.set("archiveDir", RUN_ARCHIVE_DIR);
+                SimulationResult simulationResult = Main.run(scenario, optimizerMonitor, cancellation);
 
                 SwingUtilities.invokeAndWait(() -> {
-                    if (simulationOutput.isEmpty()) {
-                        outputArea.setText("<html><body><p style='color: red;'>No simulation output generated.</p></body></html>");
-                    } else {
-                        String html = generateHtmlContent();
-                        outputArea.setText(html);
-                        outputArea.setCaretPosition(0);
-                        outputArea.revalidate();
-                        outputArea.repaint();
-                        outputArea.getParent().revalidate();
-                        outputArea.getParent().repaint();
-                        try (FileWriter writer = new FileWriter("debug.html")) {
-                            writer.write(html);
-                        } catch (IOException e) {
-                            System.err.println("Error saving debug HTML: " + e.getMessage());
-                        }
-                        System.out.println("Setting HTML in outputArea, length: " + html.length() + " characters");
-                        System.out.println("outputArea content type: " + outputArea.getContentType());
-                        System.out.println("outputArea visible: " + outputArea.isVisible());
-                        System.out.println("outputArea size: " + outputArea.getSize());
-                        if (outputArea.getText().trim().isEmpty()) {
-                            outputArea.setContentType("text/plain");
-                            outputArea.setText(String.join("\n", simulationOutput));
-                            outputArea.setCaretPosition(0);
-                            outputArea.revalidate();
-                            outputArea.repaint();
-                            System.out.println("Fallback to plain text in outputArea");
-                        }
-                    }
+                    result = simulationResult;
+                    resultsView.setResult(result);
+                    tabs.setSelectedComponent(resultsView);
+                    outputArea.setText(HtmlReport.render(result, currentDateTime, REPORT_MAX_TABLE_ROWS));
+                    outputArea.setCaretPosition(0);
                 });
             } catch (Exception ex) {
                 SwingUtilities.invokeLater(() -> {
                     outputArea.setText("<html><body><p style='color: red;'>Error: " + ex.getMessage() + "</p></body></html>");
                     outputArea.setCaretPosition(0);
-                    outputArea.revalidate();
-                    outputArea.repaint();
-                    outputArea.getParent().revalidate();
-                    outputArea.getParent().repaint();
                 });
                 ex.printStackTrace();
             } finally {
                 SwingUtilities.invokeLater(() -> {
+                    convergenceChart.stop();
+                    runCancellation = null;
+                    stopButton.setEnabled(false);
                     runButton.setEnabled(true);
                     mainPanel.revalidate();
                     mainPanel.repaint();
@@ -282,135 +269,24 @@ public class MainGUI extends JFrame {
         simThread.start();
     }
 
-    private String generateHtmlContent() {
-        StringBuilder htmlContent = new StringBuilder();
-        htmlContent.append("<html><head><style>");
-        htmlContent.append("body { font-family: Arial, sans-serif; margin: 20px; color: #333; }");
-        htmlContent.append("h1 { color: #2c3e50; text-align: center; }");
-        htmlContent.append("h2 { color: #34495e; margin-top: 20px; border-bottom: 2px solid #3498db; padding-bottom: 5px; }");
-        htmlContent.append("table { width: 100%; border-collapse: collapse; margin: 20px 0; background-color: white; }");
-        htmlContent.append("th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }");
-        htmlContent.append("th { background-color: #3498db; color: white; }");
-        htmlContent.append("tr:nth-child(even) { background-color: #f2f2f2; }");
-        htmlContent.append("p { line-height: 1.6; margin: 5px 0; }");
-        htmlContent.append(".summary { font-weight: bold; color: #2c3e50; }");
-        htmlContent.append(".datetime { font-style: italic; color: #7f8c8d; text-align: center; }");
-        htmlContent.append("</style></head><body>");
-
-        htmlContent.append("<p class=\"datetime\">Generated on ").append(currentDateTime).append("</p>");
-        htmlContent.append("<h1>CloudSim Simulation Report</h1>");
-
-
-        boolean inMipsTable = false;
-        boolean inCloudletTable = false;
-        boolean inSection = false;
-        String currentSection = "";
-        StringBuilder sectionContent = new StringBuilder();
-
-        for (int i = 0; i < simulationOutput.size(); i++) {
-            String line = simulationOutput.get(i).replace("<", "&lt;").replace(">", "&gt;"); // Escape HTML
-            if (line.startsWith("===")) {
-                // End previous section
-                if (inSection) {
-                    htmlContent.append("<h2>").append(currentSection).append("</h2>");
-                    if (sectionContent.length() > 0) {
-                        htmlContent.append("<p>").append(sectionContent.toString().replace("\n", "<br>")).append("</p>");
-                    }
-                    sectionContent.setLength(0);
-                    inSection = false;
-                }
-                // Start new section
-                currentSection = line.replace("===", "").trim();
-                inSection = true;
-                if (currentSection.equals("PSO Best Allocation")) {
-                    i++; // Skip header
-                    htmlContent.append("<h2>").append(currentSection).append("</h2>");
-                    htmlContent.append("<table><tr><th>VM ID</th><th>MIPS</th><th>Assigned Host</th></tr>");
-                    inMipsTable = true;
-                    inSection = false;
-                } else if (currentSection.equals("Cloudlet Results")) {
-                    i++; // Skip header
-                    htmlContent.append("<h2>").append(currentSection).append("</h2>");
-                    htmlContent.append("<table><tr><th>CloudletID</th><th>STATUS</th><th>VMID</th><th>Time</th><th>Start</th><th>Finish</th></tr>");
-                    inCloudletTable = true;
-                    inSection = false;
-                }
-            } else if (inMipsTable && line.matches("\\d+\\s+\\d+\\.\\d+\\s+\\d+")) {
-                String[] parts = line.trim().split("\\s+");
-                sectionContent.append("<tr><td>").append(parts[0]).append("</td><td>")
-                        .append(parts[1]).append("</td><td>").append(parts[2]).append("</td></tr>");
-            } else if (inMipsTable && !line.matches("\\d+\\s+\\d+\\.\\d+\\s+\\d+")) {
-                htmlContent.append(sectionContent.toString()).append("</table>");
-                inMipsTable = false;
-                sectionContent.setLength(0);
-                if (line.contains("VM #")) {
-                    currentSection = "VM Allocation Details";
-                    inSection = true;
-                    sectionContent.append(line).append("\n");
-                }
-            } else if (inCloudletTable && line.matches("\\d+\\s+\\w+\\s+\\d+\\s+\\d+\\.\\d+\\s+\\d+\\.\\d+\\s+\\d+\\.\\d+")) {
-                String[] parts = line.trim().split("\\s+");
-                sectionContent.append("<tr><td>").append(parts[0]).append("</td><td>")
-                        .append(parts[1]).append("</td><td>").append(parts[2]).append("</td><td>")
-                        .append(parts[3]).append("</td><td>").append(parts[4]).append("</td><td>")
-                        .append(parts[5]).append("</td></tr>");
-            } else if (inCloudletTable && !line.matches("\\d+\\s+\\w+\\s+\\d+\\s+\\d+\\.\\d+\\s+\\d+\\.\\d+\\s+\\d+\\.\\d+")) {
-                htmlContent.append(sectionContent.toString()).append("</table>");
-                inCloudletTable = false;
-                sectionContent.setLength(0);
-                if (!line.isEmpty()) {
-                    currentSection = "Simulation Process";
-                    inSection = true;
-                    sectionContent.append(line).append("\n");
-                }
-            } else if (inSection) {
-                sectionContent.append(line).append("\n");
-            } else if (!line.isEmpty()) {
-                // Handle simulation process or other lines
-                if (line.contains("Broker") || line.contains("Datacenter") || line.contains("Simulation:") || line.contains("CloudSim") || line.contains("Entities")) {
-                    if (!currentSection.equals("Simulation Process")) {
-                        if (inSection && sectionContent.length() > 0) {
-                            htmlContent.append("<h2>").append(currentSection).append("</h2>");
-                            htmlContent.append("<p>").append(sectionContent.toString().replace("\n", "<br>")).append("</p>");
-                            sectionContent.setLength(0);
-                            inSection = false;
-                        }
-                        currentSection = "Simulation Process";
-                        inSection = true;
-                    }
-                    sectionContent.append(line).append("\n");
-                } else {
-                    sectionContent.append(line).append("\n");
-                    inSection = true;
-                    if (currentSection.isEmpty()) currentSection = "Miscellaneous";
-                }
-            }
-        }
-
-        // Close any open section
-        if (inSection && sectionContent.length() > 0) {
-            htmlContent.append("<h2>").append(currentSection).append("</h2>");
-            htmlContent.append("<p>").append(sectionContent.toString().replace("\n", "<br>")).append("</p>");
-        } else if (inMipsTable) {
-            htmlContent.append(sectionContent.toString()).append("</table>");
-        } else if (inCloudletTable) {
-            htmlContent.append(sectionContent.toString()).append("</table>");
+    // The optimizer returns its best allocation so far and the simulation ends at the current instant
+    private void stopSimulation() {
+        CancellationToken cancellation = runCancellation;
+        if (cancellation != null) {
+            cancellation.cancel();
+            stopButton.setEnabled(false);
         }
-
-        htmlContent.append("</body></html>");
-        String result = htmlContent.toString();
-        System.out.println("Generated HTML length: " + result.length() + " characters");
-        return result;
-    }
-
-    private void updateOutputArea() {
-        String html = generateHtmlContent();
-        outputArea.setText(html);
-        outputArea.setCaretPosition(0);
     }
 
     private void exportToPdf() {
-        if (simulationOutput.isEmpty()) {
+        if (pdfExport != null) {
+            pdfExport.cancel(true);
+            // The worker resets the buttons once the converter has really stopped
+            exportPdfButton.setText("Cancelling PDF");
+            exportPdfButton.setEnabled(false);
+            return;
+        }
+        if (result == null) {
             JOptionPane.showMessageDialog(this, "No simulation data to export!", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
@@ -422,19 +298,78 @@ public class MainGUI extends JFrame {
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
-            try {
-                String htmlContent = generateHtmlContent();
-                HtmlConverter.convertToPdf(htmlContent, new FileOutputStream(fileToSave));
-                JOptionPane.showMessageDialog(this, "PDF exported successfully to " + fileToSave.getAbsolutePath(), "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Error exporting to PDF: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
-            }
+            SimulationResult exported = result;
+            exportPdfButton.setText("Cancel PDF");
+            // Both exports report through the one progress bar
+            exportExcelButton.setEnabled(false);
+            progressBar.setValue(0);
+            progressBar.setString("PDF 0%");
+            progressBar.setVisible(true);
+
+            // Rendered and converted off the EDT; clicking the button again cancels
+            pdfExport = new SwingWorker<Void, Integer>() {
+                private final Instrumentation instrumentation = new Instrumentation();
+                // Taken by whichever of doInBackground() and a cancelled done() comes first
+                private final AtomicBoolean claimed = new AtomicBoolean();
+
+                @Override
+                protected Void doInBackground() throws Exception {
+                    if (!claimed.compareAndSet(false, true)) return null;
+                    try (Instrumentation.Phase ignored = instrumentation.start("export");
+                         OutputStream out = new BufferedOutputStream(new FileOutputStream(fileToSave))) {
+                        PdfReport.write(exported, currentDateTime, out, REPORT_MAX_TABLE_ROWS, this::publish);
+                    } catch (InterruptedIOException e) {
+                        // Resources are closed before this runs, so the partial file can go
+                        fileToSave.delete();
+                        throw e;
+                    } finally {
+                        // done() runs as soon as the export is cancelled, so the next export may
+                        // only start from here; this runs before done() otherwise
+                        SwingUtilities.invokeLater(MainGUI.this::pdfExportFinished);
+                    }
+                    return null;
+                }
+
+                @Override
+                protected void process(List<Integer> chunks) {
+                    int percent = chunks.get(chunks.size() - 1);
+                    progressBar.setValue(percent);
+                    progressBar.setString("PDF " + percent + "%");
+                }
+
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        // Cancelled before it started: nothing runs in the background to reset the buttons
+                        if (claimed.compareAndSet(false, true)) pdfExportFinished();
+                        return;
+                    }
+                    try {
+                        get();
+                        JOptionPane.showMessageDialog(MainGUI.this, "PDF exported successfully to " + fileToSave.getAbsolutePath()
+                                + String.format(" in %.1f s", instrumentation.getNanos("export") / 1e9), "Success", JOptionPane.INFORMATION_MESSAGE);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(MainGUI.this, "Error exporting to PDF: " + ex.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                        ex.getCause().printStackTrace();
+                    }
+                }
+            };
+            pdfExport.execute();
         }
     }
 
+    private void pdfExportFinished() {
+        pdfExport = null;
+        exportPdfButton.setText("Export as PDF");
+        exportPdfButton.setEnabled(true);
+        exportExcelButton.setEnabled(true);
+        progressBar.setVisible(false);
+    }
+
     private void exportToExcel() {
-        if (simulationOutput.isEmpty()) {
+        if (result == null) {
             JOptionPane.showMessageDialog(this, "No simulation data to export!", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
@@ -446,82 +381,50 @@ public class MainGUI extends JFrame {
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
-            try (Workbook workbook = new XSSFWorkbook()) {
-                Sheet sheet = workbook.createSheet("Simulation Report");
-                int rowNum = 0;
-                Row row;
-                Cell cell;
-
-                row = sheet.createRow(rowNum++);
-                cell = row.createCell(0);
-                cell.setCellValue("Generated on " + currentDateTime);
-
-                row = sheet.createRow(rowNum++);
-
-                boolean inMipsTable = false;
-                boolean inCloudletTable = false;
-                List<String[]> mipsTableData = new ArrayList<>();
-                List<String[]> cloudletTableData = new ArrayList<>();
-
-                for (String line : simulationOutput) {
-                    if (line.contains("Simulated Annealing Best Allocation")) {
-                        inMipsTable = true;
-                        row = sheet.createRow(rowNum++);
-                        String[] headers = {"VM ID", "MIPS", "Assigned Host"};
-                        for (int i = 0; i < headers.length; i++) {
-                            cell = row.createCell(i);
-                            cell.setCellValue(headers[i]);
-                        }
-                    } else if (inMipsTable && line.matches("\\d+\\s+\\d+\\.\\d+\\s+\\d+")) {
-                        mipsTableData.add(line.split("\\s+"));
-                    } else if (inMipsTable && line.contains("VM #")) {
-                        inMipsTable = false;
-                        for (String[] data : mipsTableData) {
-                            row = sheet.createRow(rowNum++);
-                            for (int i = 0; i < data.length; i++) {
-                                cell = row.createCell(i);
-                                cell.setCellValue(data[i]);
-                            }
-                        }
-                        mipsTableData.clear();
-                        row = sheet.createRow(rowNum++);
-                        cell = row.createCell(0);
-                        cell.setCellValue(line);
-                    } else if (line.contains("Cloudlet Results")) {
-                        inCloudletTable = true;
-                        row = sheet.createRow(rowNum++);
-                        String[] headers = {"CloudletID", "STATUS", "VMID", "Time", "Start", "Finish"};
-                        for (int i = 0; i < headers.length; i++) {
-                            cell = row.createCell(i);
-                            cell.setCellValue(headers[i]);
-                        }
-                    } else if (inCloudletTable && line.matches("\\d+\\s+\\w+\\s+\\d+\\s+\\d+\\.\\d+\\s+\\d+\\.\\d+\\s+\\d+\\.\\d+")) {
-                        cloudletTableData.add(line.split("\\s+"));
-                    } else if (inCloudletTable && line.isEmpty()) {
-                        inCloudletTable = false;
-                        for (String[] data : cloudletTableData) {
-                            row = sheet.createRow(rowNum++);
-                            for (int i = 0; i < data.length; i++) {
-                                cell = row.createCell(i);
-                                cell.setCellValue(data[i]);
-                            }
-                        }
-                        cloudletTableData.clear();
-                    } else if (!line.isEmpty()) {
-                        row = sheet.createRow(rowNum++);
-                        cell = row.createCell(0);
-                        cell.setCellValue(line);
+            SimulationResult exported = result;
+            exportExcelButton.setEnabled(false);
+            exportPdfButton.setEnabled(false);
+            progressBar.setValue(0);
+            progressBar.setString("Excel 0%");
+            progressBar.setVisible(true);
+
+            // Written on a worker thread; the EDT only sees progress updates
+            new SwingWorker<Void, Integer>() {
+                private final Instrumentation instrumentation = new Instrumentation();
+
+                @Override
+                protected Void doInBackground() throws Exception {
+                    try (Instrumentation.Phase ignored = instrumentation.start("export");
+                         OutputStream out = new BufferedOutputStream(new FileOutputStream(fileToSave))) {
+                        ExcelReport.write(exported, currentDateTime, out, this::publish);
                     }
+                    return null;
                 }
 
-                try (FileOutputStream fileOut = new FileOutputStream(fileToSave)) {
-                    workbook.write(fileOut);
+                @Override
+                protected void process(List<Integer> chunks) {
+                    int percent = chunks.get(chunks.size() - 1);
+                    progressBar.setValue(percent);
+                    progressBar.setString("Excel " + percent + "%");
                 }
-                JOptionPane.showMessageDialog(this, "Excel exported successfully to " + fileToSave.getAbsolutePath(), "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Error exporting to Excel: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
-            }
+
+                @Override
+                protected void done() {
+                    exportExcelButton.setEnabled(true);
+                    exportPdfButton.setEnabled(true);
+                    progressBar.setVisible(false);
+                    try {
+                        get();
+                        JOptionPane.showMessageDialog(MainGUI.this, "Excel exported successfully to " + fileToSave.getAbsolutePath()
+                                + String.format(" in %.1f s", instrumentation.getNanos("export") / 1e9), "Success", JOptionPane.INFORMATION_MESSAGE);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(MainGUI.this, "Error exporting to Excel: " + ex.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                        ex.getCause().printStackTrace();
+                    }
+                }
+            }.execute();
         }
     }
 
@@ -0,0 +1,68 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Single-pass summary of finished cloudlets and host loads.
+ *
+ * Each cloudlet is read once and folded into counters, running statistics and histograms, so
+ * the report costs O(n) time and constant memory whether the cloudlets come from a list after
+ * the run or one by one from a broker during it.
+ */
+public class MetricsAggregator {
+
+    static final double OVERLOAD_THRESHOLD = 0.9;
+
+    private final RunningStats execTime = new RunningStats();
+    private final RunningStats waitTime = new RunningStats();
+    private final LatencyHistogram execHistogram = new LatencyHistogram();
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+    private final RunningStats hostLoad = new RunningStats();
+
+    private long total;
+    private long successful;
+    private double lastFinishTime;
+    private int overloadedHosts;
+
+    public void add(Cloudlet cloudlet) {
+        total++;
+        lastFinishTime = Math.max(lastFinishTime, cloudlet.getFinishTime());
+        if (cloudlet.getStatus() != Cloudlet.SUCCESS) return;
+
+        successful++;
+        double exec = cloudlet.getFinishTime() - cloudlet.getExecStartTime();
+        double wait = cloudlet.getExecStartTime() - cloudlet.getSubmissionTime();
+        execTime.add(exec);
+        execHistogram.record(exec);
+        waitTime.add(wait);
+        waitHistogram.record(wait);
+    }
+
+    public void addAll(Iterable<? extends Cloudlet> cloudlets) {
+        for (Cloudlet cloudlet : cloudlets) {
+            add(cloudlet);
+        }
+    }
+
+    /**
+     * Folds the time-weighted load of every host recorded by the sampler.
+     */
+    public void addHosts(HostUtilizationSampler sampler) {
+        for (int h = 0; h < sampler.getHostCount(); h++) {
+            double load = sampler.getAverageUtilization(h);
+            hostLoad.add(load);
+            if (load > OVERLOAD_THRESHOLD) overloadedHosts++;
+        }
+    }
+
+    public long getTotal() { return total; }
+    public long getSuccessful() { return successful; }
+    public long getFailed() { return total - successful; }
+    public double getLastFinishTime() { return lastFinishTime; }
+    public RunningStats getExecTime() { return execTime; }
+    public RunningStats getWaitTime() { return waitTime; }
+    public LatencyHistogram getExecHistogram() { return execHistogram; }
+    public LatencyHistogram getWaitHistogram() { return waitHistogram; }
+    public RunningStats getHostLoad() { return hostLoad; }
+    public int getOverloadedHosts() { return overloadedHosts; }
+}
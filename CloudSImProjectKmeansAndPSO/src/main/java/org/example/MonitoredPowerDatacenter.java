@@ -0,0 +1,54 @@
+package org.example;
+
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+
+import java.util.List;
+
+/**
+ * Power-aware datacenter of {@code PowerHost}s that also feeds a {@link HostUtilizationSampler}.
+ *
+ * {@code PowerDatacenter} accumulates energy itself at every scheduling interval; the sampler
+ * keeps the per-host figures and the utilization timeline. CloudSim's own migration policy is
+ * disabled, migrations only come from the {@link ConsolidationManager}.
+ */
+public class MonitoredPowerDatacenter extends PowerDatacenter implements SampledDatacenter {
+
+    private final HostUtilizationSampler sampler;
+
+    public MonitoredPowerDatacenter(String name, DatacenterCharacteristics characteristics, VmAllocationPolicy vmAllocationPolicy,
+                                    List<Storage> storageList, double schedulingInterval,
+                                    HostUtilizationSampler sampler) throws Exception {
+        super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
+        this.sampler = sampler;
+        setDisableMigrations(true);
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        SimulationProbe.onEvent();
+        super.processEvent(ev);
+    }
+
+    @Override
+    protected void updateCloudletProcessing() {
+        super.updateCloudletProcessing();
+        sampler.sample(CloudSim.clock());
+    }
+
+    @Override
+    public HostUtilizationSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * @return energy accounted by CloudSim's power model, in kWh
+     */
+    public double getEnergyKWh() {
+        return getPower() / 3_600_000.0;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+/**
+ * Live view of the optimizer for JMX clients, registered as {@code org.example:type=Optimizer}.
+ *
+ * Figures that do not apply to the project's optimizer are {@code NaN}: the acceptance rate is
+ * only defined for simulated annealing, the diversity only for GA (population) and PSO (swarm).
+ */
+public interface OptimizerMXBean {
+
+    String getAlgorithm();
+
+    /**
+     * @return number of optimization rounds so far (each batch allocation and re-optimization is one)
+     */
+    int getRound();
+
+    boolean isRunning();
+
+    /**
+     * @return last iteration (generation) published in the current round
+     */
+    int getIteration();
+
+    /**
+     * @return fitness evaluations over all rounds of the run
+     */
+    long getEvaluations();
+
+    /**
+     * @return fitness evaluations per second of the current (or last) round
+     */
+    double getEvaluationsPerSecond();
+
+    double getBestFitness();
+
+    /**
+     * @return mean fitness of the population or swarm, or of the current SA solution since the last update
+     */
+    double getCurrentFitness();
+
+    /**
+     * @return accepted share of the proposed moves in the current round (SA)
+     */
+    double getAcceptanceRate();
+
+    /**
+     * @return population diversity (GA) or swarm diversity (PSO) at the last iteration
+     */
+    double getDiversity();
+}
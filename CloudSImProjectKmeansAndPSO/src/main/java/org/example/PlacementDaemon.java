@@ -0,0 +1,470 @@
+package org.example;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running placement service on a loopback TCP port.
+ *
+ * Usage: {@code PlacementDaemon [--port <n>] [--window <ms>] [--max-batch <n>] [key=value ...]}.
+ * The {@code key=value} pairs form the {@link Scenario} of the fleet ({@code hosts},
+ * {@code hostTypes}) and of the optimizer. Hosts, their {@link HostCapacityIndex} and the
+ * optimizer are built once; the fleet's load stays in memory until the daemon stops.
+ *
+ * Clients send one request per line, written like a scenario line, and get one response line
+ * per request in the same order, so requests may be pipelined:
+ * <pre>
+ * place id=7 mips=500 ram=1024 [pes=1]   ok id=7 host=12 batch=4 latencyMicros=5130
+ * release id=7                           ok id=7 host=12
+ * stats                                  ok placed=... p50Micros=... p99Micros=... batchesPerSecond=...
+ * shutdown                               ok
+ * </pre>
+ * Place requests of all connections are collected for {@code window} milliseconds after the
+ * first one arrives, or until {@code max-batch} are waiting, and placed as one batch. The
+ * optimizer is warm-started from the greedy placement on the current fleet and balances the
+ * batch against the load already placed. A VM whose host would be overcommitted goes to the
+ * host with room that it fits most tightly instead, and is refused with
+ * {@code error message=no capacity} if there is none. One thread owns the fleet state, so it needs no locks. Failed requests are
+ * answered with {@code error message=...}.
+ */
+public class PlacementDaemon {
+
+    static final int DEFAULT_PORT = 7878;
+    static final long DEFAULT_WINDOW_MILLIS = 5;
+    static final int DEFAULT_MAX_BATCH = 256;
+
+    private static final String USAGE = "Usage: PlacementDaemon [--port <n>] [--window <ms>] [--max-batch <n>] [key=value ...]";
+
+    private final List<Host> hosts;
+    private final HostCapacityIndex capacity;
+    private final double[] usedMips;
+    private final double[] usedRam;
+    private final Map<Integer, Placement> placements = new HashMap<>();
+    private final PlacementOptimizer optimizer;
+    private final OptimizerMonitor monitor = new OptimizerMonitor();
+    private final CancellationToken cancel = new CancellationToken();
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final long windowNanos;
+    private final int maxBatch;
+    private volatile ServerSocket server;
+    private volatile Thread batcher;
+
+    // Owned by the batcher thread
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final long startNanos = System.nanoTime();
+    private long batches;
+    private long placed;
+    private long optimizerNanos;
+
+    public PlacementDaemon(Scenario scenario, long windowMillis, int maxBatch) {
+        this.hosts = Main.createHosts(0, scenario.getNumHosts(), HostType.parseCatalog(scenario.getHostTypes()), false, new ArrayList<>());
+        double[] capacityMips = new double[hosts.size()];
+        double[] capacityRam = new double[hosts.size()];
+        for (int h = 0; h < hosts.size(); h++) {
+            capacityMips[h] = hosts.get(h).getTotalMips();
+            capacityRam[h] = hosts.get(h).getRam();
+        }
+        this.capacity = HostCapacityIndex.empty(capacityMips, capacityRam);
+        this.usedMips = new double[hosts.size()];
+        this.usedRam = new double[hosts.size()];
+        this.optimizer = Main.search(scenario, new Random(scenario.getSeed()), monitor, cancel);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+        MonitoringBeans.register("Optimizer", monitor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        long window = DEFAULT_WINDOW_MILLIS;
+        int maxBatch = DEFAULT_MAX_BATCH;
+        List<String> pairs = new ArrayList<>();
+        Scenario scenario = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port":
+                        port = Integer.parseInt(value(args, ++i));
+                        break;
+                    case "--window":
+                        window = Long.parseLong(value(args, ++i));
+                        break;
+                    case "--max-batch":
+                        maxBatch = Integer.parseInt(value(args, ++i));
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        }
+                        pairs.add(args[i]);
+                }
+            }
+            if (port < 0 || window < 0 || maxBatch < 1) {
+                throw new IllegalArgumentException("Port and window must not be negative, and a batch needs at least one VM");
+            }
+            scenario = Scenario.parse(String.join(" ", pairs));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(CliRunner.EXIT_USAGE);
+        }
+
+        new PlacementDaemon(scenario, window, maxBatch).serve(port);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Accepts connections until a client sends {@code shutdown}.
+     *
+     * @param port loopback port to listen on, 0 for any free port
+     */
+    public void serve(int port) throws IOException {
+        try (ServerSocket socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            server = socket;
+            batcher = daemonThread(this::placeLoop, "placement-batcher");
+            batcher.start();
+            System.out.printf("%s placement daemon listening on %s (window %d ms, batches up to %d VMs, %d hosts)%n",
+                    Main.ALGORITHM, socket.getLocalSocketAddress(), TimeUnit.NANOSECONDS.toMillis(windowNanos), maxBatch, hosts.size());
+            while (true) {
+                Socket client;
+                try {
+                    client = socket.accept();
+                } catch (SocketException e) {
+                    break;  // closed by stop()
+                }
+                client.setTcpNoDelay(true);
+                new Connection(client).start();
+            }
+        } finally {
+            stop();
+        }
+    }
+
+    void stop() {
+        cancel.cancel();
+        Thread thread = batcher;
+        if (thread != null) thread.interrupt();
+        try {
+            ServerSocket socket = server;
+            if (socket != null) socket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    private static Thread daemonThread(Runnable body, String name) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void placeLoop() {
+        List<Request> batch = new ArrayList<>();
+        try {
+            while (true) {
+                Request first = queue.take();
+                if (!first.command.equals("place")) {
+                    handle(first);
+                    continue;
+                }
+                batch.add(first);
+                // A release or stats request closes the window early, so it
+                // sees every place request that was sent before it.
+                Request barrier = null;
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    if (!next.command.equals("place")) {
+                        barrier = next;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                placeBatch(batch);
+                batch.clear();
+                if (barrier != null) handle(barrier);
+            }
+        } catch (InterruptedException e) {
+            for (Request request : batch) request.fail("daemon stopped");
+            for (Request request : queue) request.fail("daemon stopped");
+        }
+    }
+
+    private void handle(Request request) {
+        try {
+            switch (request.command) {
+                case "release":
+                    int id = Integer.parseInt(request.get("id"));
+                    Placement placement = placements.remove(id);
+                    if (placement == null) {
+                        request.fail("VM " + id + " is not placed");
+                        return;
+                    }
+                    capacity.add(placement.host, -placement.mips, -placement.ram);
+                    usedMips[placement.host] -= placement.mips;
+                    usedRam[placement.host] -= placement.ram;
+                    Map<String, String> released = new LinkedHashMap<>();
+                    released.put("id", String.valueOf(id));
+                    released.put("host", String.valueOf(hosts.get(placement.host).getId()));
+                    request.reply(released);
+                    break;
+                case "stats":
+                    request.reply(stats());
+                    break;
+                default:
+                    request.fail("Unknown command: " + request.command);
+            }
+        } catch (RuntimeException e) {
+            request.fail(String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void placeBatch(List<Request> batch) {
+        List<Request> accepted = new ArrayList<>();
+        List<Vm> vms = new ArrayList<>();
+        Set<Integer> ids = new HashSet<>();
+        for (Request request : batch) {
+            try {
+                int id = Integer.parseInt(request.get("id"));
+                double mips = Double.parseDouble(request.get("mips"));
+                int ram = Integer.parseInt(request.get("ram"));
+                int pes = request.fields.containsKey("pes") ? Integer.parseInt(request.get("pes")) : 1;
+                if (mips <= 0 || ram <= 0 || pes < 1) {
+                    throw new IllegalArgumentException("VM needs positive mips, ram and pes");
+                }
+                if (placements.containsKey(id) || !ids.add(id)) {
+                    throw new IllegalArgumentException("VM " + id + " is already placed");
+                }
+                vms.add(new Vm(id, 0, mips, pes, ram, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+                accepted.add(request);
+            } catch (RuntimeException e) {
+                request.fail(String.valueOf(e.getMessage()));
+            }
+        }
+        if (vms.isEmpty()) return;
+
+        double[] vmMips = new double[vms.size()];
+        for (int i = 0; i < vmMips.length; i++) {
+            vmMips[i] = vms.get(i).getMips() * vms.get(i).getNumberOfPes();
+        }
+
+        // Warm start: greedy placement on the live index, largest VMs first, as PlacementProblem.greedyAllocation does
+        Integer[] order = new Integer[vms.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(vmMips[b], vmMips[a]));
+        int[] seed = new int[vms.size()];
+        for (int i : order) {
+            int host = capacity.leastLoaded(vmMips[i], vms.get(i).getRam());
+            seed[i] = host >= 0 ? host : capacity.leastLoaded();
+            capacity.add(seed[i], vmMips[i], vms.get(i).getRam());
+        }
+
+        PlacementProblem problem = new PlacementProblem(hosts, vms, vmMips, usedMips.clone(), usedRam.clone(), seed, null);
+        long start = System.nanoTime();
+        int[] allocation = seed;
+        monitor.begin();
+        try {
+            allocation = optimizer.optimize(problem);
+        } catch (RuntimeException e) {
+            // The greedy placement is still a valid answer
+            System.err.println("Optimizer failed, keeping the greedy placement: " + e);
+        } finally {
+            monitor.end();
+        }
+        long end = System.nanoTime();
+        optimizerNanos += end - start;
+
+        // The seed and the optimizer may overcommit a host, so each VM is checked against the index again
+        for (int i = 0; i < seed.length; i++) {
+            capacity.add(seed[i], -vmMips[i], -vms.get(i).getRam());
+        }
+        int recorded = 0;
+        for (int i = 0; i < allocation.length; i++) {
+            Vm vm = vms.get(i);
+            int host = allocation[i];
+            if (capacity.freeMips(host) < vmMips[i] || capacity.freeRam(host) < vm.getRam()) {
+                // Repair by best fit so that larger VMs later in the batch still find room
+                host = capacity.bestFit(vmMips[i], vm.getRam());
+            }
+            if (host < 0) {
+                accepted.get(i).fail("no capacity");
+                continue;
+            }
+            capacity.add(host, vmMips[i], vm.getRam());
+            usedMips[host] += vmMips[i];
+            usedRam[host] += vm.getRam();
+            placements.put(vm.getId(), new Placement(host, vmMips[i], vm.getRam()));
+
+            Request request = accepted.get(i);
+            double seconds = (end - request.receivedNanos) / 1e9;
+            latency.record(seconds);
+            Map<String, String> response = new LinkedHashMap<>();
+            response.put("id", String.valueOf(vm.getId()));
+            response.put("host", String.valueOf(hosts.get(host).getId()));
+            response.put("batch", String.valueOf(vms.size()));
+            response.put("latencyMicros", String.valueOf(Math.round(seconds * 1e6)));
+            request.reply(response);
+            recorded++;
+        }
+        batches++;
+        placed += recorded;
+    }
+
+    private Map<String, String> stats() {
+        double uptime = (System.nanoTime() - startNanos) / 1e9;
+        Map<String, String> stats = new LinkedHashMap<>();
+        stats.put("placed", String.valueOf(placed));
+        stats.put("active", String.valueOf(placements.size()));
+        stats.put("batches", String.valueOf(batches));
+        stats.put("meanBatch", format(batches > 0 ? (double) placed / batches : 0));
+        stats.put("p50Micros", String.valueOf(Math.round(latency.getQuantile(0.50) * 1e6)));
+        stats.put("p99Micros", String.valueOf(Math.round(latency.getQuantile(0.99) * 1e6)));
+        stats.put("maxMicros", String.valueOf(Math.round(latency.getMax() * 1e6)));
+        stats.put("batchesPerSecond", format(uptime > 0 ? batches / uptime : 0));
+        stats.put("vmsPerSecond", format(uptime > 0 ? placed / uptime : 0));
+        stats.put("optimizerMillis", format(optimizerNanos / 1e6));
+        stats.put("uptimeSeconds", format(uptime));
+        return stats;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static final class Placement {
+        final int host;
+        final double mips;
+        final double ram;
+
+        Placement(int host, double mips, double ram) {
+            this.host = host;
+            this.mips = mips;
+            this.ram = ram;
+        }
+    }
+
+    /**
+     * One request line; its response line is completed by whichever thread handles it.
+     */
+    private static final class Request {
+        final String command;
+        final Map<String, String> fields;
+        final long receivedNanos = System.nanoTime();
+        final CompletableFuture<String> response = new CompletableFuture<>();
+
+        Request(String command, Map<String, String> fields) {
+            this.command = command;
+            this.fields = fields;
+        }
+
+        String get(String key) {
+            String value = fields.get(key);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing " + key);
+            }
+            return value;
+        }
+
+        void reply(Map<String, String> values) {
+            response.complete(values.isEmpty() ? "ok" : "ok " + Scenario.formatRecord(values));
+        }
+
+        void fail(String message) {
+            response.complete("error " + Scenario.formatRecord(Collections.singletonMap("message", message)));
+        }
+    }
+
+    /**
+     * Reads requests on one thread and writes their responses, in request order, on another.
+     */
+    private final class Connection {
+        private final Socket socket;
+        private final BlockingQueue<Request> responses = new LinkedBlockingQueue<>();
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void start() {
+            daemonThread(this::read, "placement-reader-" + socket.getPort()).start();
+            daemonThread(this::write, "placement-writer-" + socket.getPort()).start();
+        }
+
+        private void read() {
+            // Not closed here: closing the stream would close the socket before the writer is done
+            try {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty()) continue;
+                    String[] parts = trimmed.split("\\s+", 2);
+                    Request request;
+                    try {
+                        request = new Request(parts[0], Scenario.parseRecord(parts.length > 1 ? parts[1] : ""));
+                    } catch (IllegalArgumentException e) {
+                        request = new Request(parts[0], Collections.emptyMap());
+                        request.fail(e.getMessage());
+                    }
+                    responses.put(request);
+                    if (request.response.isDone()) continue;
+                    if (request.command.equals("shutdown")) {
+                        request.reply(Collections.emptyMap());
+                        break;
+                    }
+                    queue.put(request);
+                }
+            } catch (IOException | InterruptedException e) {
+                // Client went away; the writer closes the socket
+            } finally {
+                responses.add(new Request("", Collections.emptyMap()));  // end of stream
+            }
+        }
+
+        private void write() {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                while (true) {
+                    Request request = responses.take();
+                    if (request.command.isEmpty()) break;
+                    out.println(request.response.get());
+                    // Flush once the pipelined requests answered so far are written
+                    if (responses.isEmpty() || !responses.peek().response.isDone()) out.flush();
+                    if (request.command.equals("shutdown")) {
+                        out.flush();
+                        stop();
+                        break;
+                    }
+                    if (out.checkError()) break;
+                }
+            } catch (Exception e) {
+                // Client went away or the daemon stopped
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Already closed
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Compares archived runs by their summary figures.
+ *
+ * Usage: {@code RunCompare [--by algorithm|name] [--metrics m1,m2,...] <archive-or-directory>...}.
+ * Runs are grouped by algorithm (or scenario name) and every metric is printed as CSV with
+ * count, mean, standard deviation, minimum and maximum per group. Given exactly two archive
+ * files, it prints the metrics of both side by side with their difference instead.
+ * Only the summary section of each archive is read, so thousands of runs take seconds.
+ */
+public class RunCompare {
+
+    public static void main(String[] args) throws IOException {
+        String groupBy = "algorithm";
+        Set<String> metrics = null;
+        List<Path> files = new ArrayList<>();
+        boolean directories = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--by") && i + 1 < args.length) {
+                groupBy = args[++i];
+            } else if (args[i].equals("--metrics") && i + 1 < args.length) {
+                metrics = new LinkedHashSet<>(Arrays.asList(args[++i].split(",")));
+            } else {
+                Path path = Paths.get(args[i]);
+                directories |= Files.isDirectory(path);
+                collect(path, files);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: RunCompare [--by algorithm|name] [--metrics m1,m2,...] <archive-or-directory>...");
+            System.exit(64);
+        }
+
+        if (files.size() == 2 && !directories) {
+            diff(files.get(0), files.get(1), metrics, System.out);
+        } else {
+            summarize(files, groupBy, metrics, System.out);
+        }
+    }
+
+    private static void collect(Path path, List<Path> files) throws IOException {
+        if (!Files.isDirectory(path)) {
+            files.add(path);
+            return;
+        }
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(path, "*" + RunArchive.EXTENSION)) {
+            for (Path entry : entries) {
+                archives.add(entry);
+            }
+        }
+        Collections.sort(archives);
+        files.addAll(archives);
+    }
+
+    static void summarize(List<Path> files, String groupBy, Set<String> metrics, PrintStream out) throws IOException {
+        // group -> metric -> stats
+        Map<String, Map<String, RunningStats>> groups = new TreeMap<>();
+        for (Path file : files) {
+            try (RunArchive archive = RunArchive.open(file)) {
+                String group = groupBy.equals("name") ? archive.getScenario().getName() : archive.getAlgorithm();
+                Map<String, RunningStats> stats = groups.computeIfAbsent(group, k -> new LinkedHashMap<>());
+                for (Map.Entry<String, Double> entry : archive.getSummary().entrySet()) {
+                    if (metrics != null && !metrics.contains(entry.getKey())) continue;
+                    stats.computeIfAbsent(entry.getKey(), k -> new RunningStats()).add(entry.getValue());
+                }
+            }
+        }
+
+        out.println(groupBy + ",metric,runs,mean,stddev,min,max");
+        for (Map.Entry<String, Map<String, RunningStats>> group : groups.entrySet()) {
+            for (Map.Entry<String, RunningStats> metric : group.getValue().entrySet()) {
+                RunningStats stats = metric.getValue();
+                out.printf(Locale.ROOT, "%s,%s,%d,%.6f,%.6f,%.6f,%.6f%n", group.getKey(), metric.getKey(), stats.getCount(),
+                        stats.getMean(), stats.getStdDev(), stats.getMin(), stats.getMax());
+            }
+        }
+    }
+
+    static void diff(Path first, Path second, Set<String> metrics, PrintStream out) throws IOException {
+        Map<String, Double> a;
+        Map<String, Double> b;
+        try (RunArchive archive = RunArchive.open(first)) {
+            a = archive.getSummary();
+        }
+        try (RunArchive archive = RunArchive.open(second)) {
+            b = archive.getSummary();
+        }
+
+        out.println("metric," + first.getFileName() + "," + second.getFileName() + ",delta,deltaPercent");
+        for (Map.Entry<String, Double> entry : a.entrySet()) {
+            String metric = entry.getKey();
+            if (!b.containsKey(metric) || (metrics != null && !metrics.contains(metric))) continue;
+            double before = entry.getValue();
+            double after = b.get(metric);
+            double percent = before != 0 ? (after - before) / Math.abs(before) * 100.0 : 0;
+            out.printf(Locale.ROOT, "%s,%.6f,%.6f,%.6f,%.2f%n", metric, before, after, after - before, percent);
+        }
+    }
+}
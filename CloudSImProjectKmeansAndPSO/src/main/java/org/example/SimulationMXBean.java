@@ -0,0 +1,32 @@
+package org.example;
+
+import java.util.Map;
+
+/**
+ * Live view of the simulation driver for JMX clients, registered as {@code org.example:type=Simulation}.
+ */
+public interface SimulationMXBean {
+
+    String getScenario();
+
+    /**
+     * @return phase the run is in (innermost if phases nest), empty before the first and after the last
+     */
+    String getPhase();
+
+    /**
+     * @return current simulated time in seconds
+     */
+    double getClock();
+
+    long getEventsProcessed();
+
+    int getFutureQueueHighWater();
+
+    long getHeapUsedBytes();
+
+    /**
+     * @return heap in use when each finished phase ended, largest value if the phase ran several times
+     */
+    Map<String, Long> getHeapUsedByPhase();
+}
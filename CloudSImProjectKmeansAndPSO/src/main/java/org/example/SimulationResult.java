@@ -0,0 +1,156 @@
+package org.example;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Everything one finished simulation run produced: summary figures, the optimizer's allocation,
+ * the finished cloudlets as primitive columns, the metric aggregates and the phase timings.
+ *
+ * The console report, the GUI and the exporters all read from this object, so none of them has
+ * to parse printed text.
+ */
+public class SimulationResult {
+
+    private final Scenario scenario;
+    String algorithm;
+    int vmCount;
+    int[][] clusters = new int[0][];
+    final AllocationTable allocation = new AllocationTable();
+    CloudletTable cloudlets;
+    MetricsAggregator metrics = new MetricsAggregator();
+    HostUtilizationSampler hostUtilization;
+    int totalCloudlets;
+    int successfulCloudlets;
+    int allocationFailures;
+    double makespanSeconds;
+    double avgExecTime;
+    double averageHostUtilization;
+    double energyKWh;
+    double baselineEnergyKWh;
+    double powerDatacenterEnergyKWh = -1;
+    double costUsd;
+    int consolidationRounds;
+    int migrations;
+    double migrationTime;
+    double balanceGain;
+    long wallClockMillis;
+    boolean cancelled;
+    Instrumentation instrumentation;
+
+    SimulationResult(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("name", scenario.getName());
+        map.put("seed", String.valueOf(scenario.getSeed()));
+        map.put("cloudlets", String.valueOf(totalCloudlets));
+        map.put("successful", String.valueOf(successfulCloudlets));
+        map.put("allocationFailures", String.valueOf(allocationFailures));
+        map.put("makespan", format(makespanSeconds));
+        map.put("avgExecTime", format(avgExecTime));
+        map.put("avgHostUtilization", format(averageHostUtilization));
+        map.put("energyKWh", format(energyKWh));
+        map.put("costUsd", format(costUsd));
+        map.put("migrations", String.valueOf(migrations));
+        map.put("migrationTime", format(migrationTime));
+        map.put("balanceGain", format(balanceGain));
+        map.put("wallClockMs", String.valueOf(wallClockMillis));
+        map.put("cancelled", String.valueOf(cancelled));
+        if (instrumentation != null) {
+            map.putAll(instrumentation.toMap());
+        }
+        return map;
+    }
+
+    public long getFailedCloudlets() {
+        return totalCloudlets - successfulCloudlets;
+    }
+
+    public double getThroughput() {
+        return makespanSeconds > 0 ? successfulCloudlets / makespanSeconds : 0;
+    }
+
+    /**
+     * @return population standard deviation of the time-weighted host loads
+     */
+    public double getHostLoadStdDev() {
+        RunningStats hostLoad = metrics.getHostLoad();
+        long hosts = hostLoad.getCount();
+        return hosts > 0 ? Math.sqrt(hostLoad.getVariance() * (hosts - 1) / hosts) : 0;
+    }
+
+    public int getHostCount() {
+        return (int) metrics.getHostLoad().getCount();
+    }
+
+    public double getEnergySavedKWh() {
+        return baselineEnergyKWh - energyKWh;
+    }
+
+    public double getEfficiencyPercent() {
+        return baselineEnergyKWh > 0 ? getEnergySavedKWh() / baselineEnergyKWh * 100.0 : 0;
+    }
+
+    public double getBaselineCostUsd() {
+        return baselineEnergyKWh * Main.COST_PER_KWH;
+    }
+
+    public double getEnergyPerCloudletKWh() {
+        return successfulCloudlets > 0 ? energyKWh / successfulCloudlets : 0;
+    }
+
+    public double getEnergyPerVmKWh() {
+        return vmCount > 0 ? energyKWh / vmCount : 0;
+    }
+
+    public double getCostPerHostUsd() {
+        return getHostCount() > 0 ? costUsd / getHostCount() : 0;
+    }
+
+    public double getCostPerVmUsd() {
+        return vmCount > 0 ? costUsd / vmCount : 0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    public Scenario getScenario() { return scenario; }
+    public String getAlgorithm() { return algorithm; }
+    public int getVmCount() { return vmCount; }
+    public int[][] getClusters() { return clusters; }
+    public AllocationTable getAllocation() { return allocation; }
+    /**
+     * @return finished cloudlets, or {@code null} if a streaming run was told not to keep them
+     */
+    public CloudletTable getCloudlets() { return cloudlets; }
+    public MetricsAggregator getMetrics() { return metrics; }
+    public HostUtilizationSampler getHostUtilization() { return hostUtilization; }
+    public int getTotalCloudlets() { return totalCloudlets; }
+    public int getSuccessfulCloudlets() { return successfulCloudlets; }
+    public int getAllocationFailures() { return allocationFailures; }
+    public double getMakespanSeconds() { return makespanSeconds; }
+    public double getAvgExecTime() { return avgExecTime; }
+    public double getAverageHostUtilization() { return averageHostUtilization; }
+    public double getEnergyKWh() { return energyKWh; }
+    public double getBaselineEnergyKWh() { return baselineEnergyKWh; }
+    /**
+     * @return energy reported by CloudSim's PowerDatacenter, or -1 outside power-aware mode
+     */
+    public double getPowerDatacenterEnergyKWh() { return powerDatacenterEnergyKWh; }
+    public double getCostUsd() { return costUsd; }
+    public int getConsolidationRounds() { return consolidationRounds; }
+    public int getMigrations() { return migrations; }
+    public double getMigrationTime() { return migrationTime; }
+    public double getBalanceGain() { return balanceGain; }
+    public long getWallClockMillis() { return wallClockMillis; }
+    /**
+     * @return true if the run was stopped early; the figures then cover only the part that ran
+     */
+    public boolean isCancelled() { return cancelled; }
+    public Instrumentation getInstrumentation() { return instrumentation; }
+}
@@ -0,0 +1,149 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broker that pulls cloudlets from a {@link CloudletSource} instead of a prepared list.
+ *
+ * Cloudlets are submitted in waves: whenever a cloudlet returns, and whenever the next release
+ * time is reached, the broker tops up to {@code maxInFlight} running cloudlets. At most one
+ * wake-up event of its own is pending, so neither the heap nor CloudSim's event queue grows
+ * with the size of the workload. Returned cloudlets are only kept if {@code retainCloudlets}
+ * is set; subclasses can fold them into aggregates in {@link #cloudletReturned}.
+ */
+public class StreamingCloudletBroker extends FederatedBroker {
+
+    private static final int SUBMIT_WAVE = 9200;
+
+    private final CloudletSource source;
+    private final int maxInFlight;
+    private final boolean retainCloudlets;
+    private final Map<Integer, Vm> vmsById = new HashMap<>();
+
+    private int nextVm;
+    private int inFlight;
+    private int peakInFlight;
+    private boolean waveScheduled;
+    private boolean started;
+
+    private long submitted;
+    private long completed;
+    private long unbound;
+
+    public StreamingCloudletBroker(String name, CloudletSource source, int maxInFlight, boolean retainCloudlets) throws Exception {
+        super(name);
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one cloudlet must be allowed in flight");
+        }
+        this.source = source;
+        this.maxInFlight = maxInFlight;
+        this.retainCloudlets = retainCloudlets;
+    }
+
+    // Called by DatacenterBroker once the VMs are created
+    @Override
+    protected void submitCloudlets() {
+        if (!started) {
+            for (Vm vm : getVmsCreatedList()) {
+                vmsById.put(vm.getId(), vm);
+            }
+            started = true;
+        }
+        submitWave();
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        SimulationProbe.onEvent();
+        super.processEvent(ev);
+    }
+
+    @Override
+    protected void processOtherEvent(SimEvent ev) {
+        if (ev.getTag() == SUBMIT_WAVE) {
+            waveScheduled = false;
+            submitWave();
+        } else {
+            super.processOtherEvent(ev);
+        }
+    }
+
+    @Override
+    protected void processCloudletReturn(SimEvent ev) {
+        Cloudlet cloudlet = (Cloudlet) ev.getData();
+        inFlight--;
+        cloudletReturned(cloudlet);
+        submitWave();
+    }
+
+    /**
+     * Records a finished cloudlet. Subclasses that keep their own statistics call this first.
+     */
+    protected void cloudletReturned(Cloudlet cloudlet) {
+        completed++;
+        if (retainCloudlets) {
+            getCloudletReceivedList().add(cloudlet);
+        }
+    }
+
+    // Cloudlets not released yet count as work even while none is running
+    @Override
+    public boolean hasPendingWork() {
+        return !isFinished() && (!started || waveScheduled);
+    }
+
+    private void submitWave() {
+        List<Vm> vms = getVmsCreatedList();
+        double clock = CloudSim.clock();
+        while (inFlight < maxInFlight && !vms.isEmpty() && source.hasNext() && source.nextReleaseTime() <= clock) {
+            Cloudlet cloudlet = source.next();
+            cloudlet.setUserId(getId());
+
+            Vm vm;
+            if (cloudlet.getVmId() == -1) {
+                vm = vms.get(nextVm);
+                nextVm = (nextVm + 1) % vms.size();
+                cloudlet.setVmId(vm.getId());
+            } else {
+                vm = vmsById.get(cloudlet.getVmId());
+                if (vm == null) {
+                    // Its VM was never created; DatacenterBroker would hold it back forever
+                    unbound++;
+                    Log.printLine(clock + ": " + getName() + ": Dropping cloudlet " + cloudlet.getCloudletId()
+                            + ": VM #" + cloudlet.getVmId() + " is not available");
+                    continue;
+                }
+            }
+
+            sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+            inFlight++;
+            submitted++;
+            peakInFlight = Math.max(peakInFlight, inFlight);
+        }
+
+        if (vms.isEmpty() || !source.hasNext()) {
+            if (inFlight == 0) {
+                clearDatacenters();
+                finishExecution();
+            }
+        } else if (inFlight < maxInFlight && !waveScheduled) {
+            // Capacity left but the next cloudlet is not released yet: wake up when it is
+            schedule(getId(), source.nextReleaseTime() - clock, SUBMIT_WAVE);
+            waveScheduled = true;
+        }
+    }
+
+    public long getSubmitted() { return submitted; }
+    public long getCompleted() { return completed; }
+    public long getUnbound() { return unbound; }
+    public int getPeakInFlight() { return peakInFlight; }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the rows of a {@link WorkloadTrace} as unbound cloudlets, reading one chunk at a time.
+ *
+ * Unlike {@link TraceWorkload#load}, rows do not get a VM of their own: the cloudlets run on
+ * the broker's VM pool, so traces with millions of rows need neither a VM nor a cloudlet per
+ * row in memory. The trace is closed once it is exhausted.
+ */
+public class TraceCloudletSource implements CloudletSource {
+
+    private final WorkloadTrace trace;
+    private final WorkloadChunk chunk;
+    private final int limit;
+    private int row;
+    private int produced;
+    private boolean exhausted;
+
+    /**
+     * @param limit maximum number of cloudlets, {@code <= 0} for the whole trace
+     */
+    public TraceCloudletSource(WorkloadTrace trace, int limit) {
+        this.trace = trace;
+        this.chunk = trace.newChunk(TraceWorkload.CHUNK_SIZE);
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (exhausted) return false;
+        if (limit > 0 && produced >= limit) {
+            close();
+            return false;
+        }
+        if (row < chunk.size) return true;
+        try {
+            row = 0;
+            if (trace.nextChunk(chunk)) return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public double nextReleaseTime() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return chunk.releaseTime[row];
+    }
+
+    @Override
+    public Cloudlet next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Cloudlet cloudlet = new Cloudlet(produced++, chunk.length[row], 1, 300, 300,
+                TraceWorkload.cpuModel(chunk, row), new UtilizationModelFull(), new UtilizationModelFull());
+        row++;
+        return cloudlet;
+    }
+
+    private void close() {
+        exhausted = true;
+        try {
+            trace.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example;
+
+import org.cloudbus.cloudsim.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns workload traces into CloudSim VMs and cloudlets, one chunk at a time.
+ */
+public final class TraceWorkload {
+
+    static final int CHUNK_SIZE = 4096;
+
+    private TraceWorkload() {
+    }
+
+    /**
+     * @param format {@code planetlab} (directory of utilization files) or {@code google} (task usage CSV)
+     */
+    public static WorkloadTrace open(String format, Path path, double referenceMips, int referenceRam) throws IOException {
+        switch (format) {
+            case "planetlab":
+                return new PlanetLabTrace(path);
+            case "google":
+                return new GoogleTaskTrace(path, referenceMips, referenceRam);
+            default:
+                throw new IllegalArgumentException("Unknown trace format: " + format);
+        }
+    }
+
+    /**
+     * Reads up to {@code limit} rows (all rows if {@code limit <= 0}) and appends one VM and one
+     * cloudlet bound to it per row. Power-aware datacenters need VMs with a dynamic workload scheduler.
+     * Release times are not kept: {@code DatacenterBroker} submits every cloudlet as soon as the VMs
+     * exist, so only {@link TraceCloudletSource} in streaming mode replays them.
+     */
+    public static void load(WorkloadTrace trace, int brokerId, int limit, boolean powerAware,
+                            List<Vm> vms, List<Cloudlet> cloudlets) throws IOException {
+        WorkloadChunk chunk = trace.newChunk(CHUNK_SIZE);
+        int id = vms.size();
+        while ((limit <= 0 || id < limit) && trace.nextChunk(chunk)) {
+            for (int row = 0; row < chunk.size && (limit <= 0 || id < limit); row++, id++) {
+                CloudletScheduler scheduler = powerAware
+                        ? new CloudletSchedulerDynamicWorkload(chunk.mips[row], 1)
+                        : new CloudletSchedulerTimeShared();
+                Vm vm = new Vm(id, brokerId, chunk.mips[row], 1, chunk.ram[row], 1000, 10000, "Xen", scheduler);
+                Cloudlet cloudlet = new Cloudlet(id, chunk.length[row], 1, 300, 300,
+                        cpuModel(chunk, row), new UtilizationModelFull(), new UtilizationModelFull());
+                cloudlet.setUserId(brokerId);
+                cloudlet.setVmId(id);
+                vms.add(vm);
+                cloudlets.add(cloudlet);
+            }
+        }
+    }
+
+    static UtilizationModel cpuModel(WorkloadChunk chunk, int row) {
+        if (chunk.samplesPerRow == 0) {
+            return new UtilizationModelFull();
+        }
+        int from = row * chunk.samplesPerRow;
+        return new UtilizationModelTrace(Arrays.copyOfRange(chunk.utilization, from, from + chunk.samplesPerRow),
+                PlanetLabTrace.SAMPLE_INTERVAL);
+    }
+}
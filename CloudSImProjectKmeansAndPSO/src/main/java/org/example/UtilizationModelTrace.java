@@ -0,0 +1,26 @@
+package org.example;
+
+import org.cloudbus.cloudsim.UtilizationModel;
+
+/**
+ * Utilization model that replays a sampled series, interpolating linearly between samples.
+ */
+public class UtilizationModelTrace implements UtilizationModel {
+
+    private final float[] samples;
+    private final double interval;
+
+    public UtilizationModelTrace(float[] samples, double interval) {
+        this.samples = samples;
+        this.interval = interval;
+    }
+
+    @Override
+    public double getUtilization(double time) {
+        double position = time / interval;
+        int index = (int) position;
+        if (index >= samples.length - 1) return samples[samples.length - 1];
+        double fraction = position - index;
+        return samples[index] + (samples[index + 1] - samples[index]) * fraction;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+/**
+ * Reusable block of workload descriptors read from a trace.
+ *
+ * Each row describes one VM and the cloudlet it runs, stored in primitive columns. A trace
+ * refills the same chunk on every call, so memory is bounded by the chunk capacity rather
+ * than by the trace size.
+ */
+public class WorkloadChunk {
+
+    final double[] mips;
+    final int[] ram;
+    final long[] length;
+    final double[] releaseTime;
+    /** Row-major CPU utilization series, {@code samplesPerRow} values per row; empty if the trace has none. */
+    final float[] utilization;
+    final int samplesPerRow;
+    int size;
+
+    public WorkloadChunk(int capacity, int samplesPerRow) {
+        this.mips = new double[capacity];
+        this.ram = new int[capacity];
+        this.length = new long[capacity];
+        this.releaseTime = new double[capacity];
+        this.utilization = new float[capacity * samplesPerRow];
+        this.samplesPerRow = samplesPerRow;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isFull() {
+        return size == mips.length;
+    }
+
+    void add(double vmMips, int vmRam, long cloudletLength, double release) {
+        mips[size] = vmMips;
+        ram[size] = vmRam;
+        length[size] = cloudletLength;
+        releaseTime[size] = release;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,231 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * {@link FlightEvents} backed by JDK Flight Recorder, compiled by the {@code jfr} profile only.
+ *
+ * A hook first checks whether its event type is enabled in the running recording, so without
+ * a recording it allocates nothing. Fitness evaluations are timed for one call in
+ * {@link #EVALUATION_SAMPLE_INTERVAL}, and only samples above the event's threshold are kept.
+ * The thresholds below are defaults; a JFC settings file can override them per event.
+ */
+public class JfrFlightEvents extends FlightEvents {
+
+    static final int EVALUATION_SAMPLE_INTERVAL = 64;
+
+    // Racy on purpose: a lost update only shifts which evaluation gets sampled
+    private int evaluationCount;
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Object beginIteration() {
+        return begin(new IterationEvent());
+    }
+
+    @Override
+    public void endIteration(Object handle, String algorithm, int round, int iteration, double bestFitness, double meanFitness) {
+        IterationEvent event = (IterationEvent) end(handle);
+        if (event == null) return;
+        event.algorithm = algorithm;
+        event.round = round;
+        event.iteration = iteration;
+        event.bestFitness = bestFitness;
+        event.meanFitness = meanFitness;
+        event.commit();
+    }
+
+    @Override
+    public Object beginEvaluation() {
+        if (++evaluationCount % EVALUATION_SAMPLE_INTERVAL != 0) return null;
+        return begin(new EvaluationEvent());
+    }
+
+    @Override
+    public void endEvaluation(Object handle, int vms, int hosts, double fitness) {
+        EvaluationEvent event = (EvaluationEvent) end(handle);
+        if (event == null) return;
+        event.vms = vms;
+        event.hosts = hosts;
+        event.fitness = fitness;
+        event.commit();
+    }
+
+    @Override
+    public Object beginKMeansIteration() {
+        return begin(new KMeansIterationEvent());
+    }
+
+    @Override
+    public void endKMeansIteration(Object handle, int iteration, int vms, int clusters, boolean changed) {
+        KMeansIterationEvent event = (KMeansIterationEvent) end(handle);
+        if (event == null) return;
+        event.iteration = iteration;
+        event.vms = vms;
+        event.clusters = clusters;
+        event.changed = changed;
+        event.commit();
+    }
+
+    @Override
+    public Object beginAllocation() {
+        return begin(new AllocationEvent());
+    }
+
+    @Override
+    public void endAllocation(Object handle, int vmId, int hostId, boolean fallback, boolean optimized) {
+        AllocationEvent event = (AllocationEvent) end(handle);
+        if (event == null) return;
+        event.vmId = vmId;
+        event.hostId = hostId;
+        event.success = hostId >= 0;
+        event.fallback = fallback;
+        event.optimized = optimized;
+        event.commit();
+    }
+
+    @Override
+    public Object beginPhase() {
+        return begin(new PhaseEvent());
+    }
+
+    @Override
+    public void endPhase(Object handle, String phase) {
+        PhaseEvent event = (PhaseEvent) end(handle);
+        if (event == null) return;
+        event.phase = phase;
+        event.commit();
+    }
+
+    @Override
+    public Object beginSimulation() {
+        return begin(new SimulationEvent());
+    }
+
+    @Override
+    public void endSimulation(Object handle, String scenario, double clock, long events, boolean cancelled) {
+        SimulationEvent event = (SimulationEvent) end(handle);
+        if (event == null) return;
+        event.scenario = scenario;
+        event.clock = clock;
+        event.events = events;
+        event.cancelled = cancelled;
+        event.commit();
+    }
+
+    private static Event begin(Event event) {
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @return the event if it passes its threshold and should be committed, otherwise {@code null}
+     */
+    private static Event end(Object handle) {
+        if (handle == null) return null;
+        Event event = (Event) handle;
+        event.end();
+        return event.shouldCommit() ? event : null;
+    }
+
+    @Name("org.example.OptimizerIteration")
+    @Label("Optimizer Iteration")
+    @Description("One generation or iteration of the optimizer; SA reports a window of iterations")
+    @Category({"CloudSim", "Optimizer"})
+    @StackTrace(false)
+    static class IterationEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("Round")
+        int round;
+        @Label("Iteration")
+        int iteration;
+        @Label("Best Fitness")
+        double bestFitness;
+        @Label("Mean Fitness")
+        double meanFitness;
+    }
+
+    @Name("org.example.FitnessEvaluation")
+    @Label("Fitness Evaluation")
+    @Description("Sampled evaluation of one candidate allocation")
+    @Category({"CloudSim", "Optimizer"})
+    @Threshold("20 us")
+    static class EvaluationEvent extends Event {
+        @Label("VMs")
+        int vms;
+        @Label("Hosts")
+        int hosts;
+        @Label("Fitness")
+        double fitness;
+    }
+
+    @Name("org.example.KMeansIteration")
+    @Label("K-Means Iteration")
+    @Category({"CloudSim", "Clustering"})
+    @StackTrace(false)
+    static class KMeansIterationEvent extends Event {
+        @Label("Iteration")
+        int iteration;
+        @Label("VMs")
+        int vms;
+        @Label("Clusters")
+        int clusters;
+        @Label("Centroids Moved")
+        boolean changed;
+    }
+
+    @Name("org.example.VmAllocation")
+    @Label("VM Allocation")
+    @Description("Placement of one VM, including the optimizer run it triggered")
+    @Category({"CloudSim", "Allocation"})
+    @StackTrace(false)
+    static class AllocationEvent extends Event {
+        @Label("VM")
+        int vmId;
+        @Label("Host")
+        int hostId;
+        @Label("Success")
+        boolean success;
+        @Label("Fallback Host")
+        boolean fallback;
+        @Label("Ran Optimizer")
+        boolean optimized;
+    }
+
+    @Name("org.example.Phase")
+    @Label("Run Phase")
+    @Category({"CloudSim", "Run"})
+    @StackTrace(false)
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("org.example.Simulation")
+    @Label("CloudSim Simulation")
+    @Description("CloudSim event loop from startSimulation until it returns")
+    @Category({"CloudSim", "Run"})
+    @StackTrace(false)
+    static class SimulationEvent extends Event {
+        @Label("Scenario")
+        String scenario;
+        @Label("Simulated Seconds")
+        double clock;
+        @Label("Events")
+        long events;
+        @Label("Cancelled")
+        boolean cancelled;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Placement chosen by the optimizer for each VM, as primitive columns (VM id, MIPS, host index).
+ */
+public class AllocationTable {
+
+    private int size;
+    private int[] vmIds = new int[16];
+    private double[] mips = new double[16];
+    private int[] hosts = new int[16];
+
+    public void add(int vmId, double vmMips, int host) {
+        if (size == vmIds.length) {
+            vmIds = Arrays.copyOf(vmIds, size * 2);
+            mips = Arrays.copyOf(mips, size * 2);
+            hosts = Arrays.copyOf(hosts, size * 2);
+        }
+        vmIds[size] = vmId;
+        mips[size] = vmMips;
+        hosts[size] = host;
+        size++;
+    }
+
+    public int size() { return size; }
+    public int getVmId(int row) { return vmIds[row]; }
+    public double getMips(int row) { return mips[row]; }
+    public int getHost(int row) { return hosts[row]; }
+}
@@ -0,0 +1,21 @@
+package org.example;
+
+/**
+ * Cooperative stop request for a run.
+ *
+ * Optimizers poll it between iterations and return their best allocation so far, and the
+ * simulation ends at the current simulated instant once it is set (see {@link SimulationProbe}).
+ * It is safe to cancel from any thread.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compact binary log of finished cloudlets, one fixed-size record each.
+ *
+ * The file starts with the magic {@code CLOG} and a version; each record holds the cloudlet id,
+ * VM id, status, length in MI, submission, start and finish time (41 bytes).
+ */
+public class CloudletLog implements Closeable {
+
+    private static final int MAGIC = 0x434C4F47;  // "CLOG"
+    private static final int VERSION = 1;
+
+    private final DataOutputStream out;
+
+    public CloudletLog(Path path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    public void write(Cloudlet cloudlet) throws IOException {
+        out.writeInt(cloudlet.getCloudletId());
+        out.writeInt(cloudlet.getVmId());
+        out.writeByte(cloudlet.getStatus());
+        out.writeLong(cloudlet.getCloudletLength());
+        out.writeDouble(cloudlet.getSubmissionTime());
+        out.writeDouble(cloudlet.getExecStartTime());
+        out.writeDouble(cloudlet.getFinishTime());
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Receives the fields of one logged cloudlet.
+     */
+    public interface RecordHandler {
+        void record(int cloudletId, int vmId, int status, long length, double submissionTime, double startTime, double finishTime);
+    }
+
+    /**
+     * Reads a log written by this class record by record.
+     */
+    public static void read(Path path, RecordHandler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a cloudlet log: " + path);
+            }
+            while (true) {
+                int cloudletId;
+                try {
+                    cloudletId = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                handler.record(cloudletId, in.readInt(), in.readByte(), in.readLong(),
+                        in.readDouble(), in.readDouble(), in.readDouble());
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Worker process of the {@link ExperimentFarm}.
+ *
+ * Reads one scenario line from stdin, runs it and answers with one result line on stdout,
+ * until stdin is closed. CloudSim keeps its state in statics, so every worker JVM runs a
+ * single simulation at a time; the JVM itself stays warm between scenarios.
+ */
+public class ExperimentWorker {
+
+    static final String STATUS_OK = "ok";
+    static final String STATUS_ERROR = "error";
+
+    public static void main(String[] args) throws IOException {
+        PrintStream protocol = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+
+        // Simulation output must never reach the protocol stream
+        PrintStream quiet = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        System.setOut(quiet);
+        Log.setOutput(quiet);
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) break;
+
+            Map<String, String> reply = new LinkedHashMap<>();
+            try {
+                Scenario scenario = Scenario.parse(line);
+                SimulationResult result = Main.run(scenario);
+                reply.put("status", STATUS_OK);
+                reply.putAll(result.toMap());
+            } catch (Throwable t) {
+                reply.put("status", STATUS_ERROR);
+                reply.put("message", String.valueOf(t));
+                t.printStackTrace();
+            }
+            protocol.println(Scenario.formatRecord(reply));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Broker that creates each VM in the datacenter it was assigned to.
+ *
+ * {@code DatacenterBroker} asks the first datacenter for all VMs and only moves the rest to the
+ * next one when VMs fail. Once {@link #setVmDatacenters} is given the level-one assignment of
+ * {@link FederatedPlacement}, every datacenter is asked for its own VMs only; datacenters are
+ * still visited one after another, and one without VMs is skipped. Without an assignment it
+ * behaves like {@code DatacenterBroker}.
+ */
+public class FederatedBroker extends DatacenterBroker {
+
+    private final Map<Integer, Integer> vmDatacenters = new HashMap<>();
+    private boolean cloudletsHandedOver;
+    private boolean finished;
+
+    public FederatedBroker(String name) throws Exception {
+        super(name);
+    }
+
+    /**
+     * @param vmDatacenters datacenter entity id by VM id; VMs left out may go to any datacenter
+     */
+    public void setVmDatacenters(Map<Integer, Integer> vmDatacenters) {
+        this.vmDatacenters.clear();
+        this.vmDatacenters.putAll(vmDatacenters);
+    }
+
+    /**
+     * @return whether cloudlets will still start later, so a datacenter with nothing running is
+     *         only idle for now; false once the broker has finished
+     */
+    public boolean hasPendingWork() {
+        return !finished && !cloudletsHandedOver;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    protected void submitCloudlets() {
+        cloudletsHandedOver = true;
+        super.submitCloudlets();
+    }
+
+    @Override
+    protected void finishExecution() {
+        finished = true;
+        super.finishExecution();
+    }
+
+    @Override
+    protected void createVmsInDatacenter(int datacenterId) {
+        if (vmDatacenters.isEmpty()) {
+            super.createVmsInDatacenter(datacenterId);
+            return;
+        }
+
+        int requested = 0;
+        for (Vm vm : getVmList()) {
+            Integer target = vmDatacenters.get(vm.getId());
+            if (getVmsToDatacentersMap().containsKey(vm.getId()) || (target != null && target != datacenterId)) continue;
+            sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
+            requested++;
+        }
+        getDatacenterRequestedIdsList().add(datacenterId);
+        setVmsRequested(requested);
+        setVmsAcks(0);
+
+        if (requested == 0) {
+            // No acknowledgement will come that would move the broker on
+            nextDatacenter();
+        }
+    }
+
+    // Same continuation as DatacenterBroker.processVmCreate once a datacenter has answered
+    private void nextDatacenter() {
+        for (int datacenterId : getDatacenterIdsList()) {
+            if (!getDatacenterRequestedIdsList().contains(datacenterId)) {
+                createVmsInDatacenter(datacenterId);
+                return;
+            }
+        }
+        if (!getVmsCreatedList().isEmpty()) {
+            submitCloudlets();
+        } else {
+            finishExecution();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+
+import java.util.List;
+
+/**
+ * Records the CPU utilization of every host over simulated time and integrates energy as it goes.
+ *
+ * A sample is taken after each processing update of the datacenter. Utilization is treated as
+ * constant between two updates, so power x time is added for the interval that just ended
+ * before the new value is recorded. Recent samples are kept in a fixed-size ring per host
+ * (columnar: one shared time column, one utilization column per host), so memory does not
+ * grow with the length of the run; the time-weighted averages and energy cover the whole run.
+ *
+ * Each host has its own power curve. With {@code switchOffIdle} a host without load is
+ * treated as powered off and draws nothing, like {@code PowerHost} does in CloudSim.
+ */
+public class HostUtilizationSampler {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final List<? extends Host> hosts;
+    private final PowerModel[] powerModels;
+    private final boolean switchOffIdle;
+    private final int capacity;
+
+    private final double[] times;
+    private final float[] utilization;  // host-major: [host * capacity + slot]
+    private final double[] currentUtilization;
+    private final double[] utilizationSeconds;
+    private final double[] energyKWh;
+
+    private double lastTime;
+    private long samples;
+
+    /**
+     * @param powerModels power curve of each host, in the order of {@code hosts}
+     */
+    public HostUtilizationSampler(List<? extends Host> hosts, PowerModel[] powerModels, boolean switchOffIdle, int capacity) {
+        if (powerModels.length != hosts.size()) {
+            throw new IllegalArgumentException("Expected one power model per host");
+        }
+        this.hosts = hosts;
+        this.powerModels = powerModels;
+        this.switchOffIdle = switchOffIdle;
+        this.capacity = capacity;
+        this.times = new double[capacity];
+        this.utilization = new float[hosts.size() * capacity];
+        this.currentUtilization = new double[hosts.size()];
+        this.utilizationSeconds = new double[hosts.size()];
+        this.energyKWh = new double[hosts.size()];
+    }
+
+    /**
+     * Closes the interval since the previous sample and records the hosts' utilization at {@code time}.
+     */
+    public void sample(double time) {
+        advance(time);
+
+        int slot = (int) (samples % capacity);
+        times[slot] = time;
+        for (int h = 0; h < currentUtilization.length; h++) {
+            Host host = hosts.get(h);
+            double used = 0;
+            for (Vm vm : host.<Vm>getVmList()) {
+                // The time-shared scheduler sums its cloudlets' utilization, so a busy VM can report
+                // several times its MIPS
+                used += Math.min(vm.getMips(), vm.getTotalUtilizationOfCpuMips(time));
+            }
+            double u = host.getTotalMips() > 0 ? Math.min(1.0, used / host.getTotalMips()) : 0;
+            currentUtilization[h] = u;
+            utilization[h * capacity + slot] = (float) u;
+        }
+        samples++;
+    }
+
+    /**
+     * Integrates the last recorded utilization up to {@code time}, normally the end of the run.
+     */
+    public void finish(double time) {
+        advance(time);
+    }
+
+    private void advance(double time) {
+        double dt = time - lastTime;
+        if (dt <= 0) return;
+        for (int h = 0; h < currentUtilization.length; h++) {
+            double u = currentUtilization[h];
+            utilizationSeconds[h] += u * dt;
+            energyKWh[h] += power(h, u) * dt / 3600.0;
+        }
+        lastTime = time;
+    }
+
+    /**
+     * @return power draw of a host in kW at the given utilization
+     */
+    double power(int host, double u) {
+        if (switchOffIdle && u == 0) return 0;
+        return powerModels[host].getPower(u) / 1000.0;
+    }
+
+    /**
+     * @return power draw in kW of all hosts running at full load
+     */
+    public double getPeakPowerKw() {
+        double total = 0;
+        for (PowerModel model : powerModels) total += model.getPower(1.0) / 1000.0;
+        return total;
+    }
+
+    public double getEnergyKWh() {
+        double total = 0;
+        for (double e : energyKWh) total += e;
+        return total;
+    }
+
+    public double getEnergyKWh(int host) {
+        return energyKWh[host];
+    }
+
+    /**
+     * @return time-weighted utilization of one host over the sampled period
+     */
+    public double getAverageUtilization(int host) {
+        return lastTime > 0 ? utilizationSeconds[host] / lastTime : 0;
+    }
+
+    /**
+     * @return time-weighted utilization averaged over all hosts
+     */
+    public double getAverageUtilization() {
+        if (utilizationSeconds.length == 0) return 0;
+        double sum = 0;
+        for (int h = 0; h < utilizationSeconds.length; h++) sum += getAverageUtilization(h);
+        return sum / utilizationSeconds.length;
+    }
+
+    public int getHostCount() {
+        return currentUtilization.length;
+    }
+
+    /**
+     * @return number of samples still held in the rings (at most the capacity)
+     */
+    public int getRetainedSamples() {
+        return (int) Math.min(samples, capacity);
+    }
+
+    public long getTotalSamples() {
+        return samples;
+    }
+
+    /**
+     * @param index 0 is the oldest retained sample
+     */
+    public double getSampleTime(int index) {
+        return times[slot(index)];
+    }
+
+    public double getSampleUtilization(int host, int index) {
+        return utilization[host * capacity + slot(index)];
+    }
+
+    private int slot(int index) {
+        long first = samples - getRetainedSamples();
+        return (int) ((first + index) % capacity);
+    }
+
+    public double getElapsedSeconds() {
+        return lastTime;
+    }
+}
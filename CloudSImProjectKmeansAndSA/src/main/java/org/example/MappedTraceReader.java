@@ -0,0 +1,201 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Line and field reader over a memory-mapped text file.
+ *
+ * The file is mapped in windows of {@link #WINDOW_SIZE} bytes, so files larger than 2 GB work
+ * too. Fields are parsed straight from the mapped bytes; no {@code String} is created per line
+ * or field, which keeps parsing allocation-free for traces with millions of rows.
+ */
+public class MappedTraceReader implements Closeable {
+
+    static final int WINDOW_SIZE = 64 << 20;
+    private static final int MAX_FIELDS = 32;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final byte delimiter;
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private int position;
+    private int fieldCount;
+
+    /**
+     * @param delimiter field separator; for whitespace separated files pass {@code ' '}
+     */
+    public MappedTraceReader(Path path, char delimiter) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.delimiter = (byte) delimiter;
+        map(0);
+    }
+
+    private void map(long offset) throws IOException {
+        long length = Math.min(WINDOW_SIZE, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        windowOffset = offset;
+        position = 0;
+    }
+
+    /**
+     * Advances to the next non-blank line.
+     *
+     * @return false at the end of the file
+     */
+    public boolean nextLine() throws IOException {
+        while (windowOffset + position < fileSize) {
+            int limit = window.limit();
+            int end = position;
+            while (end < limit && window.get(end) != '\n') end++;
+
+            if (end == limit && windowOffset + limit < fileSize) {
+                // The line continues past this window: remap starting at the line
+                if (position == 0) {
+                    throw new IOException("Trace line longer than " + WINDOW_SIZE + " bytes");
+                }
+                map(windowOffset + position);
+                continue;
+            }
+
+            int start = position;
+            position = end + 1;
+            if (end > start && window.get(end - 1) == '\r') end--;
+            if (end > start) {
+                split(start, end);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void split(int start, int end) {
+        fieldCount = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end && fieldCount < MAX_FIELDS; i++) {
+            if (i == end || window.get(i) == delimiter) {
+                // Whitespace separated files may repeat the separator
+                if (delimiter != ' ' || i > fieldBegin) {
+                    fieldStart[fieldCount] = fieldBegin;
+                    fieldEnd[fieldCount] = i;
+                    fieldCount++;
+                }
+                fieldBegin = i + 1;
+            }
+        }
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return true if the field starts with a digit, sign or decimal point (e.g. false for a CSV header)
+     */
+    public boolean isNumeric(int field) {
+        int i = skipBlanks(field);
+        if (i >= fieldEnd[field]) return false;
+        byte b = window.get(i);
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    public long getLong(int field) {
+        int i = skipBlanks(field);
+        int end = fieldEnd[field];
+        boolean negative = false;
+        if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') break;
+            value = value * 10 + (b - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Field " + field + " is not a number");
+        }
+        return negative ? -value : value;
+    }
+
+    public double getDouble(int field) {
+        int i = skipBlanks(field);
+        int end = fieldEnd[field];
+        boolean negative = false;
+        if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b >= '0' && b <= '9') {
+                // Digits beyond long precision only shift the magnitude
+                if (mantissa < 100_000_000_000_000_000L) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction) scale--;
+                } else if (!fraction) {
+                    scale++;
+                }
+                digits++;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Field " + field + " is not a number");
+        }
+
+        if (i < end && (window.get(i) == 'e' || window.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+                negativeExponent = window.get(i) == '-';
+                i++;
+            }
+            int exponent = 0;
+            for (; i < end; i++) {
+                byte b = window.get(i);
+                if (b < '0' || b > '9') break;
+                exponent = exponent * 10 + (b - '0');
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+
+        double value = scale == 0 ? mantissa : mantissa * Math.pow(10, scale);
+        return negative ? -value : value;
+    }
+
+    private int skipBlanks(int field) {
+        if (field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Line has " + fieldCount + " fields, requested field " + field);
+        }
+        int i = fieldStart[field];
+        while (i < fieldEnd[field] && (window.get(i) == ' ' || window.get(i) == '\t')) i++;
+        return i;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,238 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+
+import java.util.*;
+
+/**
+ * VM allocation policy that places VMs with the project's metaheuristic inside CloudSim.
+ *
+ * VMs announced with {@link #submitBatch(List)} are optimized together the first time the
+ * datacenter asks for a host for any of them; the resulting decisions are cached and served
+ * to the following {@code allocateHostForVm} calls, so a batch costs one optimizer run.
+ * VMs that arrive without being announced are optimized as a batch of their own, balanced
+ * against the load already placed. If the chosen host cannot fit the VM, the host with the
+ * lowest utilization that can is used instead; a {@link HostCapacityIndex} of the reserved
+ * MIPS and RAM, updated on every create and destroy, finds it without scanning the fleet. An optional {@link TrafficModel} adds the communication
+ * cost between VMs to the optimizer's objective. A batch can also be optimized outside the
+ * simulation, e.g. in parallel with other datacenters: take {@link #pendingProblem()}, solve it
+ * and hand the result to {@link #acceptPending(int[])} before the VMs are created.
+ */
+public class OptimizedVmAllocationPolicy extends VmAllocationPolicy {
+
+    private final PlacementOptimizer optimizer;
+    private final TrafficModel traffic;
+    private final Map<String, Host> vmTable = new HashMap<>();
+    private final Map<Vm, Integer> decisions = new HashMap<>();
+    private final List<Vm> pending = new ArrayList<>();
+    private final Map<Host, Integer> hostIndex = new IdentityHashMap<>();
+    private final HostCapacityIndex capacity;
+    private int optimizerCalls;
+    private int allocationFailures;
+    private int allocations;
+    private long allocationNanos;
+    private boolean usedFallback;  // whether the last allocate() had to leave the optimizer's host
+
+    public OptimizedVmAllocationPolicy(List<? extends Host> hostList, PlacementOptimizer optimizer) {
+        this(hostList, optimizer, null);
+    }
+
+    public OptimizedVmAllocationPolicy(List<? extends Host> hostList, PlacementOptimizer optimizer, TrafficModel traffic) {
+        super(hostList);
+        this.optimizer = optimizer;
+        this.traffic = traffic;
+        double[] capacityMips = new double[hostList.size()];
+        double[] capacityRam = new double[hostList.size()];
+        for (int h = 0; h < hostList.size(); h++) {
+            Host host = hostList.get(h);
+            hostIndex.put(host, h);
+            capacityMips[h] = host.getTotalMips();
+            capacityRam[h] = host.getRam();
+        }
+        this.capacity = HostCapacityIndex.empty(capacityMips, capacityRam);
+    }
+
+    /**
+     * Announces VMs that are about to be created so they are optimized as one batch.
+     */
+    public void submitBatch(List<? extends Vm> vms) {
+        for (Vm vm : vms) {
+            if (!decisions.containsKey(vm) && !pending.contains(vm)) {
+                pending.add(vm);
+            }
+        }
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm) {
+        long start = System.nanoTime();
+        Object event = FlightEvents.get().beginAllocation();
+        boolean optimized = !decisions.containsKey(vm);
+        Host host = null;
+        try {
+            host = allocate(vm);
+            return host != null;
+        } finally {
+            allocations++;
+            allocationNanos += System.nanoTime() - start;
+            FlightEvents.get().endAllocation(event, vm.getId(), host == null ? -1 : host.getId(), usedFallback, optimized);
+        }
+    }
+
+    /**
+     * @return the host the VM was created on, or {@code null} if no host could take it
+     */
+    private Host allocate(Vm vm) {
+        usedFallback = false;
+        Integer decided = decisions.remove(vm);
+        if (decided == null) {
+            if (!pending.contains(vm)) {
+                pending.add(vm);
+            }
+            optimizePending();
+            decided = decisions.remove(vm);
+        }
+
+        Host host = getHostList().get(decided);
+        if (allocateHostForVm(vm, host)) {
+            Main.console.printf("VM #%d allocated to Host #%d\n", vm.getId(), host.getId());
+            return host;
+        }
+        Main.console.printf("Failed to allocate VM #%d to Host #%d\n", vm.getId(), host.getId());
+
+        Host fallback = leastLoadedSuitableHost(vm);
+        if (fallback != null && allocateHostForVm(vm, fallback)) {
+            Main.console.printf("VM #%d allocated to fallback Host #%d\n", vm.getId(), fallback.getId());
+            usedFallback = true;
+            return fallback;
+        }
+        allocationFailures++;
+        return null;
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm, Host host) {
+        if (host.vmCreate(vm)) {
+            vmTable.put(vm.getUid(), host);
+            capacity.add(hostIndex.get(host), demand(vm), vm.getRam());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+        return null;
+    }
+
+    @Override
+    public void deallocateHostForVm(Vm vm) {
+        Host host = vmTable.remove(vm.getUid());
+        if (host != null) {
+            host.vmDestroy(vm);
+            capacity.add(hostIndex.get(host), -demand(vm), -vm.getRam());
+        }
+    }
+
+    @Override
+    public Host getHost(Vm vm) {
+        return vmTable.get(vm.getUid());
+    }
+
+    @Override
+    public Host getHost(int vmId, int userId) {
+        return vmTable.get(Vm.getUid(userId, vmId));
+    }
+
+    private void optimizePending() {
+        acceptPending(optimizer.optimize(pendingProblem()));
+    }
+
+    /**
+     * @return the placement problem of the VMs announced so far, in announcement order
+     */
+    public PlacementProblem pendingProblem() {
+        List<Host> hosts = getHostList();
+        double[] baseLoad = currentLoad();
+        double[] baseRam = new double[hosts.size()];
+        for (int h = 0; h < hosts.size(); h++) {
+            for (Vm placed : hosts.get(h).getVmList()) {
+                baseRam[h] += placed.getRam();
+            }
+        }
+        // Decisions of an earlier batch that are not created yet still count as load
+        for (Map.Entry<Vm, Integer> decision : decisions.entrySet()) {
+            baseLoad[decision.getValue()] += demand(decision.getKey());
+            baseRam[decision.getValue()] += decision.getKey().getRam();
+        }
+        List<Vm> batch = new ArrayList<>(pending);
+        double[] vmMips = new double[batch.size()];
+        for (int i = 0; i < vmMips.length; i++) {
+            vmMips[i] = demand(batch.get(i));
+        }
+        return new PlacementProblem(hosts, batch, vmMips, baseLoad, baseRam, null, traffic);
+    }
+
+    /**
+     * Caches the host decisions for the VMs of {@link #pendingProblem()}.
+     *
+     * @param allocation host index of each pending VM, in the order of the problem's VMs
+     */
+    public void acceptPending(int[] allocation) {
+        if (allocation.length != pending.size()) {
+            throw new IllegalArgumentException("Expected a host for each of the " + pending.size() + " pending VMs");
+        }
+        for (int i = 0; i < allocation.length; i++) {
+            decisions.put(pending.get(i), allocation[i]);
+        }
+        pending.clear();
+        optimizerCalls++;
+    }
+
+    private double[] currentLoad() {
+        List<Host> hosts = getHostList();
+        double[] load = new double[hosts.size()];
+        for (int h = 0; h < hosts.size(); h++) {
+            for (Vm placed : hosts.get(h).getVmList()) {
+                load[h] += demand(placed);
+            }
+        }
+        return load;
+    }
+
+    private Host leastLoadedSuitableHost(Vm vm) {
+        List<Host> hosts = getHostList();
+        int candidate = capacity.leastLoaded(demand(vm), vm.getRam());
+        if (candidate >= 0 && hosts.get(candidate).isSuitableForVm(vm)) {
+            return hosts.get(candidate);
+        }
+        // Room in total is not room on a single PE or in bandwidth; only then scan every host
+        Host best = null;
+        double bestUtilization = Double.MAX_VALUE;
+        for (int h = 0; h < hosts.size(); h++) {
+            // Relative to capacity, so that a small host is not filled like a large one
+            double utilization = capacity.share(h);
+            if (utilization < bestUtilization && hosts.get(h).isSuitableForVm(vm)) {
+                best = hosts.get(h);
+                bestUtilization = utilization;
+            }
+        }
+        return best;
+    }
+
+    // All MIPS a VM reserves, the same measure for the optimizer, the index and the fallback
+    private static double demand(Vm vm) {
+        return vm.getMips() * vm.getNumberOfPes();
+    }
+
+    public int getOptimizerCalls() { return optimizerCalls; }
+    public int getAllocationFailures() { return allocationFailures; }
+    public int getAllocations() { return allocations; }
+
+    /**
+     * @return time spent placing VMs, including the optimizer runs it triggered
+     */
+    public long getAllocationNanos() { return allocationNanos; }
+}
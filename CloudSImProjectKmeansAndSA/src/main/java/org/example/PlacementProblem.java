@@ -0,0 +1,306 @@
+package org.example;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+import java.util.*;
+
+/**
+ * A batch of VMs to place on a fixed list of hosts.
+ *
+ * MIPS and RAM demands and host capacities are copied into primitive arrays once so the
+ * fitness function does not touch the CloudSim objects. {@code baseLoad} holds the MIPS
+ * already running on each host and {@code baseRam} the RAM, which lets a later batch be
+ * balanced against the VMs placed before it. An optional {@code initial} allocation
+ * warm-starts the optimizer from the current placement.
+ *
+ * Hosts may differ in size, so the {@link #imbalance} objective works on utilization relative
+ * to capacity: a host costs its distance from the fleet-wide CPU and RAM utilization, plus
+ * {@link #OVERLOAD_WEIGHT} times how far its dominant share (the larger of the two) exceeds
+ * the host. The cost is scaled by the mean host MIPS, so on identical hosts the CPU term is
+ * the absolute MIPS deviation from the average load.
+ *
+ * With a {@link TrafficModel} the affinity groups are flattened into a compressed adjacency
+ * list over the VMs of this batch (peers of VM {@code i} are
+ * {@code peers[peerOffsets[i] .. peerOffsets[i + 1])}), so the traffic cost of moving one VM
+ * is computed in O(degree). Peers outside the batch are ignored.
+ */
+public class PlacementProblem {
+
+    static final double OVERLOAD_WEIGHT = 10.0;
+
+    private final List<Host> hosts;
+    private final List<Vm> vms;
+    final double[] vmMips;
+    final double[] baseLoad;
+    final double[] vmRam;
+    final double[] baseRam;
+    final double[] hostMips;
+    final double[] hostRam;
+    private final double targetCpu;
+    private final double targetRam;
+    private final double scale;
+    private final int[] initial;
+    final int[] peerOffsets;
+    final int[] peers;
+    private final HostLatencyMatrix latency;
+    private final double trafficWeight;
+
+    public PlacementProblem(List<Host> hosts, List<Vm> vms) {
+        this(hosts, vms, new double[hosts.size()], null);
+    }
+
+    public PlacementProblem(List<Host> hosts, List<Vm> vms, double[] baseLoad, TrafficModel traffic) {
+        this(hosts, vms, nominalMips(vms), baseLoad, null, null, traffic);
+    }
+
+    public PlacementProblem(List<Host> hosts, List<Vm> vms, double[] baseLoad, double[] baseRam, TrafficModel traffic) {
+        this(hosts, vms, nominalMips(vms), baseLoad, baseRam, null, traffic);
+    }
+
+    public PlacementProblem(List<Host> hosts, List<Vm> vms, double[] vmMips, double[] baseLoad, int[] initial) {
+        this(hosts, vms, vmMips, baseLoad, null, initial, null);
+    }
+
+    public PlacementProblem(List<Host> hosts, List<Vm> vms, double[] vmMips, double[] baseLoad, int[] initial,
+                            TrafficModel traffic) {
+        this(hosts, vms, vmMips, baseLoad, null, initial, traffic);
+    }
+
+    /**
+     * @param vmMips  current MIPS demand of each VM, e.g. measured utilization instead of the nominal size
+     * @param baseRam RAM already in use on each host, or {@code null} for the RAM of the VMs on it that are not in {@code vms}
+     * @param initial host index of each VM to start the search from, or {@code null} for a cold start
+     * @param traffic communication between VMs, or {@code null} to balance load only
+     */
+    public PlacementProblem(List<Host> hosts, List<Vm> vms, double[] vmMips, double[] baseLoad, double[] baseRam,
+                            int[] initial, TrafficModel traffic) {
+        if (baseLoad.length != hosts.size() || (baseRam != null && baseRam.length != hosts.size())) {
+            throw new IllegalArgumentException("Expected a base load for each of the " + hosts.size() + " hosts");
+        }
+        if (vmMips.length != vms.size() || (initial != null && initial.length != vms.size())) {
+            throw new IllegalArgumentException("Expected a demand and initial host for each of the " + vms.size() + " VMs");
+        }
+        this.hosts = hosts;
+        this.vms = vms;
+        this.vmMips = vmMips;
+        this.baseLoad = baseLoad;
+        this.baseRam = baseRam != null ? baseRam : residentRam(hosts, vms);
+        this.initial = initial;
+
+        this.vmRam = new double[vms.size()];
+        this.hostMips = new double[hosts.size()];
+        this.hostRam = new double[hosts.size()];
+        double demandMips = 0;
+        double demandRam = 0;
+        double capacityMips = 0;
+        double capacityRam = 0;
+        for (int i = 0; i < vms.size(); i++) {
+            vmRam[i] = vms.get(i).getRam();
+            demandMips += vmMips[i];
+            demandRam += vmRam[i];
+        }
+        for (int h = 0; h < hosts.size(); h++) {
+            hostMips[h] = hosts.get(h).getTotalMips();
+            hostRam[h] = hosts.get(h).getRam();
+            demandMips += baseLoad[h];
+            demandRam += this.baseRam[h];
+            capacityMips += hostMips[h];
+            capacityRam += hostRam[h];
+        }
+        // Utilization every host would have if the load were spread in proportion to capacity
+        this.targetCpu = capacityMips > 0 ? demandMips / capacityMips : 0;
+        this.targetRam = capacityRam > 0 ? demandRam / capacityRam : 0;
+        this.scale = hosts.isEmpty() ? 0 : capacityMips / hosts.size();
+
+        this.peerOffsets = new int[vms.size() + 1];
+        if (traffic == null || traffic.getWeight() == 0) {
+            this.peers = new int[0];
+            this.latency = null;
+            this.trafficWeight = 0;
+            return;
+        }
+        if (traffic.getLatency().getNumHosts() != hosts.size()) {
+            throw new IllegalArgumentException("Latency matrix does not match the " + hosts.size() + " hosts");
+        }
+        this.latency = traffic.getLatency();
+        this.trafficWeight = traffic.getWeight();
+        this.peers = buildPeers(vms, traffic.getGroups(), peerOffsets);
+    }
+
+    private static double[] residentRam(List<Host> hosts, List<Vm> vms) {
+        Set<Vm> batch = Collections.newSetFromMap(new IdentityHashMap<>());
+        batch.addAll(vms);
+        double[] ram = new double[hosts.size()];
+        for (int h = 0; h < ram.length; h++) {
+            for (Vm vm : hosts.get(h).<Vm>getVmList()) {
+                if (!batch.contains(vm)) ram[h] += vm.getRam();
+            }
+        }
+        return ram;
+    }
+
+    private static int[] buildPeers(List<Vm> vms, List<int[]> groups, int[] offsets) {
+        Map<Integer, Integer> index = new HashMap<>();
+        for (int i = 0; i < vms.size(); i++) {
+            index.put(vms.get(i).getId(), i);
+        }
+
+        List<int[]> members = new ArrayList<>();
+        for (int[] group : groups) {
+            int[] present = new int[group.length];
+            Set<Integer> seen = new HashSet<>();
+            int count = 0;
+            for (int id : group) {
+                Integer i = index.get(id);
+                // A repeated id would reserve peer slots that are never filled
+                if (i != null && seen.add(i)) present[count++] = i;
+            }
+            int[] local = Arrays.copyOf(present, count);
+            members.add(local);
+            for (int i : local) offsets[i + 1] += count - 1;
+        }
+        for (int i = 0; i < vms.size(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] peers = new int[offsets[vms.size()]];
+        int[] fill = Arrays.copyOf(offsets, vms.size());
+        for (int[] local : members) {
+            for (int a : local) {
+                for (int b : local) {
+                    if (a != b) peers[fill[a]++] = b;
+                }
+            }
+        }
+        return peers;
+    }
+
+    /**
+     * @return MIPS in use on each host under {@code allocation}, including {@code baseLoad}
+     */
+    public double[] cpuLoad(int[] allocation) {
+        double[] load = baseLoad.clone();
+        for (int i = 0; i < allocation.length; i++) {
+            load[allocation[i]] += vmMips[i];
+        }
+        return load;
+    }
+
+    /**
+     * @return RAM in use on each host under {@code allocation}, including {@code baseRam}
+     */
+    public double[] ramLoad(int[] allocation) {
+        double[] load = baseRam.clone();
+        for (int i = 0; i < allocation.length; i++) {
+            load[allocation[i]] += vmRam[i];
+        }
+        return load;
+    }
+
+    /**
+     * @return capacity-relative CPU and RAM imbalance plus overload of all hosts, in O(VMs + hosts)
+     */
+    public double imbalance(int[] allocation) {
+        double[] cpu = cpuLoad(allocation);
+        double[] ram = ramLoad(allocation);
+        double cost = 0;
+        for (int h = 0; h < cpu.length; h++) {
+            cost += hostCost(h, cpu[h], ram[h]);
+        }
+        return cost;
+    }
+
+    /**
+     * Greedy placement used to seed the optimizers: VMs largest first, each on the host with the
+     * lowest dominant share that still has room for it, found through a {@link HostCapacityIndex}
+     * in O(log H). A VM that fits nowhere goes to the least loaded host.
+     */
+    public int[] greedyAllocation() {
+        HostCapacityIndex index = capacityIndex(baseLoad, baseRam);
+        Integer[] order = new Integer[vms.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(vmMips[b], vmMips[a]));
+
+        int[] allocation = new int[vms.size()];
+        for (int i : order) {
+            int host = index.leastLoaded(vmMips[i], vmRam[i]);
+            if (host < 0) host = index.leastLoaded();
+            allocation[i] = host;
+            index.add(host, vmMips[i], vmRam[i]);
+        }
+        return allocation;
+    }
+
+    /**
+     * @param cpu MIPS in use on each host, e.g. from {@link #cpuLoad}
+     * @param ram RAM in use on each host, e.g. from {@link #ramLoad}
+     * @return an index over these hosts' capacities with the given loads
+     */
+    public HostCapacityIndex capacityIndex(double[] cpu, double[] ram) {
+        return new HostCapacityIndex(hostMips, hostRam, cpu, ram);
+    }
+
+    /**
+     * @param cpu MIPS in use on each host, e.g. from {@link #cpuLoad}, kept up to date by the caller
+     * @param ram RAM in use on each host, e.g. from {@link #ramLoad}
+     * @return change of {@link #imbalance} if {@code vm} moved from {@code from} to {@code to}, in O(1)
+     */
+    public double imbalanceDelta(double[] cpu, double[] ram, int vm, int from, int to) {
+        if (from == to) return 0;
+        double mips = vmMips[vm];
+        double mem = vmRam[vm];
+        return hostCost(from, cpu[from] - mips, ram[from] - mem) + hostCost(to, cpu[to] + mips, ram[to] + mem)
+                - hostCost(from, cpu[from], ram[from]) - hostCost(to, cpu[to], ram[to]);
+    }
+
+    private double hostCost(int host, double cpu, double ram) {
+        double cpuShare = hostMips[host] > 0 ? cpu / hostMips[host] : 0;
+        double ramShare = hostRam[host] > 0 ? ram / hostRam[host] : 0;
+        double overload = Math.max(0, Math.max(cpuShare, ramShare) - 1);
+        return scale * (Math.abs(cpuShare - targetCpu) + Math.abs(ramShare - targetRam) + OVERLOAD_WEIGHT * overload);
+    }
+
+    /**
+     * @return weighted host distance summed over all communicating VM pairs
+     */
+    public double trafficCost(int[] allocation) {
+        if (peers.length == 0) return 0;
+        double cost = 0;
+        for (int i = 0; i < allocation.length; i++) {
+            for (int k = peerOffsets[i]; k < peerOffsets[i + 1]; k++) {
+                int peer = peers[k];
+                if (peer > i) cost += latency.get(allocation[i], allocation[peer]);
+            }
+        }
+        return trafficWeight * cost;
+    }
+
+    /**
+     * @return change of {@link #trafficCost} if {@code vm} moved to {@code host}, in O(degree)
+     */
+    public double trafficDelta(int[] allocation, int vm, int host) {
+        int from = allocation[vm];
+        if (peerOffsets[vm] == peerOffsets[vm + 1] || from == host) return 0;
+        double delta = 0;
+        for (int k = peerOffsets[vm]; k < peerOffsets[vm + 1]; k++) {
+            int peerHost = allocation[peers[k]];
+            delta += latency.get(host, peerHost) - latency.get(from, peerHost);
+        }
+        return trafficWeight * delta;
+    }
+
+    private static double[] nominalMips(List<Vm> vms) {
+        double[] mips = new double[vms.size()];
+        for (int i = 0; i < mips.length; i++) {
+            mips[i] = vms.get(i).getMips();
+        }
+        return mips;
+    }
+
+    public List<Host> getHosts() { return hosts; }
+    public List<Vm> getVms() { return vms; }
+    public int getNumHosts() { return hosts.size(); }
+    public int getNumVms() { return vms.size(); }
+    public int[] getInitial() { return initial; }
+}
@@ -0,0 +1,308 @@
+package org.example;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Columnar binary archive of one finished run, read back through a memory map.
+ *
+ * The file holds independent sections: the scenario line, the numeric summary (every
+ * {@link SimulationResult#toMap()} figure including phase timings, as name/double pairs), the
+ * allocation, the cloudlet columns and the host utilization series. Each table is stored
+ * column by column, and a table of contents at the end of the file ({@code tag, offset,
+ * length} per section, then the contents' offset as the last 8 bytes) lets a reader touch
+ * only the sections it needs; comparing thousands of runs reads just their summaries.
+ */
+public class RunArchive implements Closeable {
+
+    static final String EXTENSION = ".run";
+
+    private static final int MAGIC = 0x4352554E;  // "CRUN"
+    private static final int VERSION = 1;
+
+    static final int SCENARIO = 1;
+    static final int SUMMARY = 2;
+    static final int ALLOCATION = 3;
+    static final int CLOUDLETS = 4;
+    static final int HOST_UTILIZATION = 5;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Map<Integer, long[]> sections = new LinkedHashMap<>();  // tag -> {offset, length}
+
+    private RunArchive(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Run archive larger than 2 GB: " + path);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < 16 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a run archive: " + path);
+        }
+        int toc = (int) buffer.getLong((int) size - 8);
+        int count = buffer.getInt(toc);
+        for (int i = 0; i < count; i++) {
+            int entry = toc + 4 + i * 20;
+            sections.put(buffer.getInt(entry), new long[]{buffer.getLong(entry + 4), buffer.getLong(entry + 12)});
+        }
+    }
+
+    public static RunArchive open(Path path) throws IOException {
+        return new RunArchive(path);
+    }
+
+    /**
+     * Writes the result into {@code directory} under a name made of scenario, algorithm, seed and time,
+     * with a counter appended if that file already exists.
+     *
+     * @return the archive file
+     */
+    public static Path write(SimulationResult result, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String name = (result.getScenario().getName() + "-" + result.getAlgorithm() + "-" + result.getScenario().getSeed()
+                + "-" + System.currentTimeMillis()).replaceAll("[^A-Za-z0-9_.-]", "_");
+        Path file = directory.resolve(name + EXTENSION);
+        OutputStream stream;
+        // Parallel runs of one scenario can finish in the same millisecond
+        for (int n = 1; ; n++) {
+            try {
+                stream = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                file = directory.resolve(name + "-" + n + EXTENSION);
+            }
+        }
+
+        try (CountingOutputStream counter = new CountingOutputStream(stream);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            Map<Integer, long[]> toc = new LinkedHashMap<>();
+
+            long start = offset(out, counter);
+            writeString(out, result.getAlgorithm());
+            writeString(out, result.getScenario().toLine());
+            toc.put(SCENARIO, new long[]{start, offset(out, counter) - start});
+
+            start = offset(out, counter);
+            Map<String, Double> summary = numericSummary(result);
+            out.writeInt(summary.size());
+            for (Map.Entry<String, Double> entry : summary.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeDouble(entry.getValue());
+            }
+            toc.put(SUMMARY, new long[]{start, offset(out, counter) - start});
+
+            start = offset(out, counter);
+            AllocationTable allocation = result.getAllocation();
+            out.writeInt(allocation.size());
+            for (int i = 0; i < allocation.size(); i++) out.writeInt(allocation.getVmId(i));
+            for (int i = 0; i < allocation.size(); i++) out.writeDouble(allocation.getMips(i));
+            for (int i = 0; i < allocation.size(); i++) out.writeInt(allocation.getHost(i));
+            toc.put(ALLOCATION, new long[]{start, offset(out, counter) - start});
+
+            CloudletTable cloudlets = result.getCloudlets();
+            if (cloudlets != null) {
+                start = offset(out, counter);
+                int n = cloudlets.size();
+                out.writeInt(n);
+                for (int i = 0; i < n; i++) out.writeInt(cloudlets.getId(i));
+                for (int i = 0; i < n; i++) out.writeInt(cloudlets.getStatus(i));
+                for (int i = 0; i < n; i++) out.writeInt(cloudlets.getVmId(i));
+                for (int i = 0; i < n; i++) out.writeDouble(cloudlets.getCpuTime(i));
+                for (int i = 0; i < n; i++) out.writeDouble(cloudlets.getStart(i));
+                for (int i = 0; i < n; i++) out.writeDouble(cloudlets.getFinish(i));
+                toc.put(CLOUDLETS, new long[]{start, offset(out, counter) - start});
+            }
+
+            HostUtilizationSampler sampler = result.getHostUtilization();
+            if (sampler != null) {
+                start = offset(out, counter);
+                int hosts = sampler.getHostCount();
+                int samples = sampler.getRetainedSamples();
+                out.writeInt(hosts);
+                out.writeInt(samples);
+                for (int s = 0; s < samples; s++) out.writeDouble(sampler.getSampleTime(s));
+                for (int h = 0; h < hosts; h++) {
+                    for (int s = 0; s < samples; s++) out.writeFloat((float) sampler.getSampleUtilization(h, s));
+                }
+                toc.put(HOST_UTILIZATION, new long[]{start, offset(out, counter) - start});
+            }
+
+            long tocOffset = offset(out, counter);
+            out.writeInt(toc.size());
+            for (Map.Entry<Integer, long[]> entry : toc.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue()[0]);
+                out.writeLong(entry.getValue()[1]);
+            }
+            out.writeLong(tocOffset);
+        }
+        return file;
+    }
+
+    private static Map<String, Double> numericSummary(SimulationResult result) {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : result.toMap().entrySet()) {
+            try {
+                summary.put(entry.getKey(), Double.parseDouble(entry.getValue()));
+            } catch (NumberFormatException e) {
+                // Text fields (the name) live in the scenario section
+            }
+        }
+        MetricsAggregator metrics = result.getMetrics();
+        summary.put("execP50", metrics.getExecHistogram().getQuantile(0.50));
+        summary.put("execP99", metrics.getExecHistogram().getQuantile(0.99));
+        summary.put("waitP50", metrics.getWaitHistogram().getQuantile(0.50));
+        summary.put("waitP99", metrics.getWaitHistogram().getQuantile(0.99));
+        summary.put("hostLoadStdDev", result.getHostLoadStdDev());
+        return summary;
+    }
+
+    private static long offset(DataOutputStream out, CountingOutputStream counter) throws IOException {
+        out.flush();
+        return counter.count;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public Path getPath() { return path; }
+
+    public boolean hasSection(int tag) {
+        return sections.containsKey(tag);
+    }
+
+    private int section(int tag) throws IOException {
+        long[] section = sections.get(tag);
+        if (section == null) {
+            throw new IOException("Run archive has no section " + tag + ": " + path);
+        }
+        return (int) section[0];
+    }
+
+    private String readString(int position) {
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String getAlgorithm() throws IOException {
+        return readString(section(SCENARIO));
+    }
+
+    public Scenario getScenario() throws IOException {
+        int position = section(SCENARIO);
+        position += 4 + buffer.getInt(position);
+        return Scenario.parse(readString(position));
+    }
+
+    /**
+     * @return every numeric summary figure in the order it was written
+     */
+    public Map<String, Double> getSummary() throws IOException {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        int position = section(SUMMARY);
+        int count = buffer.getInt(position);
+        position += 4;
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt(position);
+            String name = readString(position);
+            position += 4 + length;
+            summary.put(name, buffer.getDouble(position));
+            position += 8;
+        }
+        return summary;
+    }
+
+    public AllocationTable getAllocation() throws IOException {
+        int position = section(ALLOCATION);
+        int n = buffer.getInt(position);
+        int vmIds = position + 4;
+        int mips = vmIds + 4 * n;
+        int hosts = mips + 8 * n;
+        AllocationTable allocation = new AllocationTable();
+        for (int i = 0; i < n; i++) {
+            allocation.add(buffer.getInt(vmIds + 4 * i), buffer.getDouble(mips + 8 * i), buffer.getInt(hosts + 4 * i));
+        }
+        return allocation;
+    }
+
+    public CloudletTable getCloudlets() throws IOException {
+        int position = section(CLOUDLETS);
+        int n = buffer.getInt(position);
+        int ids = position + 4;
+        int status = ids + 4 * n;
+        int vmIds = status + 4 * n;
+        int cpuTime = vmIds + 4 * n;
+        int start = cpuTime + 8 * n;
+        int finish = start + 8 * n;
+        CloudletTable cloudlets = new CloudletTable(n);
+        for (int i = 0; i < n; i++) {
+            cloudlets.add(buffer.getInt(ids + 4 * i), buffer.getInt(status + 4 * i), buffer.getInt(vmIds + 4 * i),
+                    buffer.getDouble(cpuTime + 8 * i), buffer.getDouble(start + 8 * i), buffer.getDouble(finish + 8 * i));
+        }
+        return cloudlets;
+    }
+
+    public int getHostCount() throws IOException {
+        return buffer.getInt(section(HOST_UTILIZATION));
+    }
+
+    public int getSampleCount() throws IOException {
+        return buffer.getInt(section(HOST_UTILIZATION) + 4);
+    }
+
+    public double getSampleTime(int index) throws IOException {
+        return buffer.getDouble(section(HOST_UTILIZATION) + 8 + 8 * index);
+    }
+
+    public float getSampleUtilization(int host, int index) throws IOException {
+        int position = section(HOST_UTILIZATION);
+        int samples = buffer.getInt(position + 4);
+        return buffer.getFloat(position + 8 + 8 * samples + 4 * (host * samples + index));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.example;
+
+/**
+ * Datacenter that records host utilization and energy through a {@link HostUtilizationSampler}.
+ */
+public interface SampledDatacenter {
+
+    HostUtilizationSampler getSampler();
+}
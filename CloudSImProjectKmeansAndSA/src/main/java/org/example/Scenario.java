@@ -0,0 +1,251 @@
+package org.example;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Parameters of a single simulation run.
+ *
+ * A scenario is written as one line of space separated key=value pairs, e.g.
+ * {@code name=baseline hosts=30 vms=10 clusters=5 iterations=1000 temperature=1000 cooling=0.95 seed=42},
+ * so that it can be stored in sweep files and sent to worker JVMs over a pipe.
+ * Keys that are left out fall back to the defaults in {@link Main}. Setting {@code trace} to a
+ * trace file or directory replaces the synthetic workload ({@code traceFormat} is
+ * {@code planetlab} or {@code google}, {@code traceLimit} caps the number of rows, 0 reads all).
+ */
+public class Scenario {
+
+    private String name = "default";
+    private int numHosts = Main.NUM_HOSTS;
+    private int numVms = Main.NUM_VMS;
+    private int kClusters = Main.K_CLUSTERS;
+    private int iterations = Main.SA_ITERATIONS;
+    private double initialTemperature = Main.SA_INITIAL_TEMPERATURE;
+    private double coolingRate = Main.SA_COOLING_RATE;
+    private double reoptimizeInterval = Main.REOPTIMIZE_INTERVAL;
+    private double migrationThreshold = Main.MIGRATION_THRESHOLD;
+    private boolean streamCloudlets = false;
+    private int numCloudlets = Main.NUM_VMS;
+    private int maxInFlight = Main.MAX_IN_FLIGHT;
+    private String cloudletLog = "";
+    private boolean cloudletRows = false;
+    private String archiveDir = "";
+    private boolean console = true;
+    private String datacenters = "";
+    private String hostTypes = "";
+    private boolean powerAware = false;
+    private String affinity = "";
+    private String topology = "";
+    private double trafficWeight = Main.TRAFFIC_WEIGHT;
+    private String trace = "";
+    private String traceFormat = "planetlab";
+    private int traceLimit = 0;
+    private long seed = new Random().nextLong();
+
+    public static Scenario defaults() {
+        return new Scenario();
+    }
+
+    public static Scenario parse(String line) {
+        Scenario scenario = new Scenario();
+        for (Map.Entry<String, String> entry : parseRecord(line).entrySet()) {
+            scenario.set(entry.getKey(), entry.getValue());
+        }
+        return scenario;
+    }
+
+    public void set(String key, String value) {
+        switch (key) {
+            case "name":
+                name = value;
+                break;
+            case "hosts":
+                numHosts = Integer.parseInt(value);
+                break;
+            case "vms":
+                numVms = Integer.parseInt(value);
+                break;
+            case "clusters":
+                kClusters = Integer.parseInt(value);
+                break;
+            case "iterations":
+                iterations = Integer.parseInt(value);
+                break;
+            case "temperature":
+                initialTemperature = Double.parseDouble(value);
+                break;
+            case "cooling":
+                coolingRate = Double.parseDouble(value);
+                break;
+            case "reoptimizeInterval":
+                reoptimizeInterval = Double.parseDouble(value);
+                break;
+            case "migrationThreshold":
+                migrationThreshold = Double.parseDouble(value);
+                break;
+            case "streamCloudlets":
+                streamCloudlets = Boolean.parseBoolean(value);
+                break;
+            case "cloudlets":
+                numCloudlets = Integer.parseInt(value);
+                break;
+            case "maxInFlight":
+                maxInFlight = Integer.parseInt(value);
+                break;
+            case "cloudletLog":
+                cloudletLog = value;
+                break;
+            case "cloudletRows":
+                cloudletRows = Boolean.parseBoolean(value);
+                break;
+            case "archiveDir":
+                archiveDir = value;
+                break;
+            case "console":
+                console = Boolean.parseBoolean(value);
+                break;
+            case "datacenters":
+                datacenters = value;
+                break;
+            case "hostTypes":
+                hostTypes = value;
+                break;
+            case "powerAware":
+                powerAware = Boolean.parseBoolean(value);
+                break;
+            case "affinity":
+                affinity = value;
+                break;
+            case "topology":
+                topology = value;
+                break;
+            case "trafficWeight":
+                trafficWeight = Double.parseDouble(value);
+                break;
+            case "trace":
+                trace = value;
+                break;
+            case "traceFormat":
+                traceFormat = value;
+                break;
+            case "traceLimit":
+                traceLimit = Integer.parseInt(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario key: " + key);
+        }
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("name", name);
+        map.put("hosts", String.valueOf(numHosts));
+        map.put("vms", String.valueOf(numVms));
+        map.put("clusters", String.valueOf(kClusters));
+        map.put("iterations", String.valueOf(iterations));
+        map.put("temperature", String.valueOf(initialTemperature));
+        map.put("cooling", String.valueOf(coolingRate));
+        map.put("reoptimizeInterval", String.valueOf(reoptimizeInterval));
+        map.put("migrationThreshold", String.valueOf(migrationThreshold));
+        map.put("streamCloudlets", String.valueOf(streamCloudlets));
+        map.put("cloudlets", String.valueOf(numCloudlets));
+        map.put("maxInFlight", String.valueOf(maxInFlight));
+        map.put("cloudletLog", cloudletLog);
+        map.put("cloudletRows", String.valueOf(cloudletRows));
+        map.put("archiveDir", archiveDir);
+        map.put("console", String.valueOf(console));
+        map.put("datacenters", datacenters);
+        map.put("hostTypes", hostTypes);
+        map.put("powerAware", String.valueOf(powerAware));
+        map.put("affinity", affinity);
+        map.put("topology", topology);
+        map.put("trafficWeight", String.valueOf(trafficWeight));
+        map.put("trace", trace);
+        map.put("traceFormat", traceFormat);
+        map.put("traceLimit", String.valueOf(traceLimit));
+        map.put("seed", String.valueOf(seed));
+        return map;
+    }
+
+    public String toLine() {
+        return formatRecord(toMap());
+    }
+
+    // Records are key=value tokens with URL-encoded values, so names and error messages survive the pipe
+    static Map<String, String> parseRecord(String line) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String token : line.trim().split("\\s+")) {
+            if (token.isEmpty()) continue;
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + token);
+            }
+            map.put(token.substring(0, eq), decode(token.substring(eq + 1)));
+        }
+        return map;
+    }
+
+    static String formatRecord(Map<String, String> map) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(entry.getKey()).append('=').append(encode(entry.getValue()));
+        }
+        return sb.toString();
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String getName() { return name; }
+    public int getNumHosts() { return numHosts; }
+    public int getNumVms() { return numVms; }
+    public int getKClusters() { return kClusters; }
+    public int getIterations() { return iterations; }
+    public double getInitialTemperature() { return initialTemperature; }
+    public double getCoolingRate() { return coolingRate; }
+    public double getReoptimizeInterval() { return reoptimizeInterval; }
+    public double getMigrationThreshold() { return migrationThreshold; }
+    public boolean isStreamCloudlets() { return streamCloudlets; }
+    public int getNumCloudlets() { return numCloudlets; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public String getCloudletLog() { return cloudletLog; }
+    public boolean isCloudletRows() { return cloudletRows; }
+    public String getArchiveDir() { return archiveDir; }
+    public boolean isConsole() { return console; }
+    public String getDatacenters() { return datacenters; }
+    public String getHostTypes() { return hostTypes; }
+    public boolean isPowerAware() { return powerAware; }
+    public String getAffinity() { return affinity; }
+    public String getTopology() { return topology; }
+    public double getTrafficWeight() { return trafficWeight; }
+    public String getTrace() { return trace; }
+    public String getTraceFormat() { return traceFormat; }
+    public int getTraceLimit() { return traceLimit; }
+    public long getSeed() { return seed; }
+
+    @Override
+    public String toString() {
+        return toLine();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Communication between VMs as a placement objective.
+ *
+ * VMs in the same affinity group exchange traffic, so placing them far apart costs
+ * {@code weight} times their host distance for every pair. Groups are written as VM ids,
+ * comma separated within a group and semicolon separated between groups, e.g. {@code 0,1,2;3,4}.
+ * A VM may appear in several groups but only once within a group.
+ */
+public class TrafficModel {
+
+    private final HostLatencyMatrix latency;
+    private final List<int[]> groups;
+    private final double weight;
+
+    public TrafficModel(HostLatencyMatrix latency, List<int[]> groups, double weight) {
+        this.latency = latency;
+        this.groups = groups;
+        this.weight = weight;
+    }
+
+    public static List<int[]> parseGroups(String spec) {
+        List<int[]> groups = new ArrayList<>();
+        for (String group : spec.split(";")) {
+            if (group.trim().isEmpty()) continue;
+            String[] ids = group.split(",");
+            int[] members = new int[ids.length];
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i < ids.length; i++) {
+                members[i] = Integer.parseInt(ids[i].trim());
+                if (!seen.add(members[i])) {
+                    throw new IllegalArgumentException("VM " + members[i] + " is listed twice in affinity group: " + group.trim());
+                }
+            }
+            groups.add(members);
+        }
+        return groups;
+    }
+
+    public HostLatencyMatrix getLatency() { return latency; }
+    public List<int[]> getGroups() { return groups; }
+    public double getWeight() { return weight; }
+}
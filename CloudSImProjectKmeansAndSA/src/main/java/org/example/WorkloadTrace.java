@@ -0,0 +1,22 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of workload rows that is read lazily, one {@link WorkloadChunk} at a time.
+ */
+public interface WorkloadTrace extends Closeable {
+
+    /**
+     * Clears the chunk and refills it with the next rows of the trace.
+     *
+     * @return false once the trace is exhausted and the chunk stayed empty
+     */
+    boolean nextChunk(WorkloadChunk chunk) throws IOException;
+
+    /**
+     * @return a chunk sized for this trace's rows
+     */
+    WorkloadChunk newChunk(int capacity);
+}